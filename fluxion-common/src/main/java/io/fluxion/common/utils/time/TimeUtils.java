@@ -36,6 +36,13 @@ public class TimeUtils {
         return zoneOffset;
     }
 
+    /**
+     * 当前时间戳 毫秒，不产生额外对象
+     */
+    public static long currentTimeMillis() {
+        return CLOCK.millis();
+    }
+
     public static Instant currentInstant() {
         return Instant.now(CLOCK);
     }
@@ -17,12 +17,29 @@
 package io.fluxion.remote.core.api.request.broker;
 
 import io.fluxion.remote.core.api.Request;
+import io.fluxion.remote.core.api.dto.BrokerMemberDTO;
+import io.fluxion.remote.core.api.response.broker.BrokerPingResponse;
+
+import java.util.List;
 
 /**
- * ping broker
+ * ping broker 同时交换双方已知的存活成员
  *
  * @author Devil
  * @since 2023/8/3
  */
-public class BrokerPingRequest implements Request<Boolean> {
+public class BrokerPingRequest implements Request<BrokerPingResponse> {
+
+    /**
+     * 发起方已知的存活成员 包含自己
+     */
+    private List<BrokerMemberDTO> members;
+
+    public List<BrokerMemberDTO> getMembers() {
+        return members;
+    }
+
+    public void setMembers(List<BrokerMemberDTO> members) {
+        this.members = members;
+    }
 }
@@ -23,21 +23,32 @@ import io.fluxion.remote.core.client.ClientFactory;
 import io.fluxion.remote.core.client.server.ClientServer;
 import io.fluxion.remote.core.constants.Protocol;
 import io.fluxion.server.core.broker.task.BucketChecker;
+import io.fluxion.server.core.broker.task.BucketLoadReporter;
 import io.fluxion.server.core.broker.task.CoreTask;
 import io.fluxion.server.core.broker.task.DataCleaner;
+import io.fluxion.server.core.broker.task.JobReportFlusher;
 import io.fluxion.server.core.broker.task.ScheduleDelayLoader;
 import io.fluxion.server.core.broker.task.ScheduleLoader;
 import io.fluxion.server.core.broker.task.WorkerChecker;
+import io.fluxion.server.core.broker.task.WorkerHeartbeatFlusher;
+import io.fluxion.server.core.job.cmd.JobReportFlushCmd;
+import io.fluxion.server.core.worker.cmd.WorkerHeartbeatFlushCmd;
 import io.fluxion.server.infrastructure.concurrent.LoggingTask;
+import io.fluxion.server.infrastructure.cqrs.Cmd;
+import io.fluxion.server.infrastructure.cqrs.ICmd;
 import io.fluxion.server.infrastructure.schedule.schedule.DelayedTaskScheduler;
-import io.fluxion.server.infrastructure.schedule.schedule.TimingWheelTimer;
+import io.fluxion.server.infrastructure.schedule.schedule.Timer;
+import io.fluxion.server.infrastructure.schedule.scheduler.FireExecutor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.util.Assert;
 
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -47,8 +58,15 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class Broker {
 
+    /**
+     * 加载任务等待队列长度，每个核心任务每轮最多提交 bucket 数量的任务
+     */
+    private static final int BUCKET_LOAD_QUEUE_SIZE = 1024;
+
     private final BrokerNode node;
 
+    private final BrokerConfig config;
+
     private final BrokerManger brokerManger;
 
     private final Client client;
@@ -62,29 +80,82 @@ public class Broker {
 
     private final List<CoreTask> coreTasks;
 
+    private final ScheduleLoader scheduleLoader;
+
+    private final ScheduleDelayLoader scheduleDelayLoader;
+
+    /**
+     * 按 bucket 加载数据
+     */
+    private final ThreadPoolExecutor loadExecutor;
+
+    /**
+     * 执行流程 execution -> job -> 下发
+     */
+    private final ThreadPoolExecutor pipelineExecutor;
+
+    private final FireExecutor delayFireExecutor;
+
+    private final Timer delayTimer;
+
     private final DelayedTaskScheduler delayedTaskScheduler;
 
     public Broker(Protocol protocol, String host, int port, BrokerManger brokerManger,
-                  ClientServer clientServer) {
+                  ClientServer clientServer, BrokerConfig config) {
         Assert.isTrue(Protocol.UNKNOWN != protocol, "protocol is unknown");
         Assert.isTrue(StringUtils.isNotBlank(host), "host is null");
+        Assert.isTrue(config.getBucketSize() > 0, "bucketSize must be positive");
 
         this.node = new BrokerNode(protocol, host, port, 0);
+        this.config = config;
         this.brokerManger = brokerManger;
         this.client = ClientFactory.create(protocol);
+        this.scheduleLoader = new ScheduleLoader(config.scheduleLoadTickSeconds());
+        this.scheduleDelayLoader = new ScheduleDelayLoader(config.getDelayLoadIntervalSeconds());
         this.coreTasks = Lists.newArrayList(
-            new ScheduleLoader(),
-            new ScheduleDelayLoader(),
+            scheduleLoader,
+            scheduleDelayLoader,
             new BucketChecker(),
+            new BucketLoadReporter(config.getBucketLoadReportSeconds()),
             new DataCleaner(),
             new WorkerChecker()
         );
+        if (config.getJobReportFlushMillis() > 0) {
+            coreTasks.add(new JobReportFlusher(config.getJobReportFlushMillis()));
+        }
+        if (config.getWorkerHeartbeatFlushMillis() > 0) {
+            coreTasks.add(new WorkerHeartbeatFlusher(config.getWorkerHeartbeatFlushMillis()));
+        }
         this.clientServer = clientServer;
         this.coreThreadPool = new ScheduledThreadPoolExecutor(
             coreTasks.size(),
             NamedThreadFactory.newInstance("FluxionBrokerCoreExecutor")
         );
-        this.delayedTaskScheduler = new DelayedTaskScheduler(new TimingWheelTimer(100L, TimeUnit.MILLISECONDS));
+        this.loadExecutor = new ThreadPoolExecutor(
+            config.getLoadPoolSize(),
+            config.getLoadPoolSize(),
+            60,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(BUCKET_LOAD_QUEUE_SIZE),
+            NamedThreadFactory.newInstance("FluxionBucketLoadExecutor")
+        );
+        this.pipelineExecutor = new ThreadPoolExecutor(
+            config.getPipelinePoolSize(),
+            config.getPipelinePoolSize(),
+            60,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(config.getPipelineQueueSize()),
+            NamedThreadFactory.newInstance("FluxionPipelineExecutor"),
+            new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        this.delayFireExecutor = new FireExecutor(
+            "FluxionDelayFireExecutor",
+            config.getDelayFirePoolSize(),
+            config.getDelayFireQueueSize(),
+            config.getDelayFireRejectPolicy()
+        );
+        this.delayTimer = config.getDelayTimerType().create(config.getDelayTickMillis(), TimeUnit.MILLISECONDS);
+        this.delayedTaskScheduler = new DelayedTaskScheduler(delayTimer, delayFireExecutor);
     }
 
     /**
@@ -116,15 +187,39 @@ public class Broker {
      * 停止
      */
     public void stop() {
+        // 先停止接收请求，避免最后一次写库后还有上报进入缓冲
+        clientServer.stop();
         brokerManger.stop();
+        // 停止前将缓冲的数据写库
+        if (config.getJobReportFlushMillis() > 0) {
+            flush(new JobReportFlushCmd());
+        }
+        if (config.getWorkerHeartbeatFlushMillis() > 0) {
+            flush(new WorkerHeartbeatFlushCmd());
+        }
         coreThreadPool.shutdown();
-        clientServer.stop();
+        loadExecutor.shutdown();
+        delayTimer.stop();
+        delayFireExecutor.shutdown();
+        pipelineExecutor.shutdown();
+    }
+
+    private void flush(ICmd<?> cmd) {
+        try {
+            Cmd.send(cmd);
+        } catch (Exception e) {
+            log.error("[Broker] flush fail cmd:{}", cmd.getClass().getSimpleName(), e);
+        }
     }
 
     public String id() {
         return node.id();
     }
 
+    public BrokerConfig config() {
+        return config;
+    }
+
     public Client client() {
         return client;
     }
@@ -133,6 +228,54 @@ public class Broker {
         return delayedTaskScheduler;
     }
 
+    /**
+     * 延迟任务触发排队数
+     */
+    public int delayFireQueued() {
+        return delayFireExecutor.queueSize();
+    }
+
+    public Executor loadExecutor() {
+        return loadExecutor;
+    }
+
+    public Executor pipelineExecutor() {
+        return pipelineExecutor;
+    }
+
+    /**
+     * 执行流程排队数
+     */
+    public int pipelineQueued() {
+        return pipelineExecutor.getQueue().size();
+    }
+
+    /**
+     * 执行流程执行中线程数
+     */
+    public int pipelineActive() {
+        return pipelineExecutor.getActiveCount();
+    }
+
+    public ScheduleLoader scheduleLoader() {
+        return scheduleLoader;
+    }
+
+    public ScheduleDelayLoader scheduleDelayLoader() {
+        return scheduleDelayLoader;
+    }
+
+    /**
+     * 延迟任务时间轮
+     */
+    public Timer delayTimer() {
+        return delayTimer;
+    }
+
+    public BrokerManger brokerManger() {
+        return brokerManger;
+    }
+
     public BrokerNode node() {
         return node;
     }
@@ -20,11 +20,13 @@ import io.fluxion.common.utils.json.JacksonUtils;
 import io.fluxion.remote.core.api.Response;
 import io.fluxion.remote.core.api.dto.BrokerTopologyDTO;
 import io.fluxion.remote.core.api.dto.NodeDTO;
+import io.fluxion.remote.core.api.request.broker.BrokerPingRequest;
 import io.fluxion.remote.core.api.request.broker.JobReportRequest;
 import io.fluxion.remote.core.api.request.broker.JobStateTransitionRequest;
 import io.fluxion.remote.core.api.request.broker.JobWorkersRequest;
 import io.fluxion.remote.core.api.request.broker.WorkerHeartbeatRequest;
 import io.fluxion.remote.core.api.request.broker.WorkerRegisterRequest;
+import io.fluxion.remote.core.api.response.broker.BrokerPingResponse;
 import io.fluxion.remote.core.api.response.broker.JobReportResponse;
 import io.fluxion.remote.core.api.response.broker.JobStateTransitionResponse;
 import io.fluxion.remote.core.api.response.broker.JobWorkersResponse;
@@ -69,7 +71,7 @@ public class BrokerClientHandler implements ClientHandler {
                     return Response.ok(heartbeat(data));
                 }
                 case BrokerRemoteConstant.API_BROKER_PING: {
-                    return Response.ok(true);
+                    return Response.ok(ping(data));
                 }
                 case BrokerRemoteConstant.API_JOB_REPORT: {
                     return Response.ok(jobReport(data));
@@ -110,6 +112,13 @@ public class BrokerClientHandler implements ClientHandler {
         return response;
     }
 
+    private BrokerPingResponse ping(String data) {
+        BrokerPingRequest request = JacksonUtils.toType(data, BrokerPingRequest.class);
+        BrokerPingResponse response = new BrokerPingResponse();
+        response.setMembers(BrokerContext.broker().brokerManger().gossip(request.getMembers()));
+        return response;
+    }
+
     private WorkerHeartbeatResponse heartbeat(String data) {
         WorkerHeartbeatRequest request = JacksonUtils.toType(data, WorkerHeartbeatRequest.class);
         // 心跳
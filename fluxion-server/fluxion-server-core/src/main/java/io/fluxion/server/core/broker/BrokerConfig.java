@@ -0,0 +1,145 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.server.core.broker;
+
+import io.fluxion.server.core.schedule.ScheduleConstants;
+import io.fluxion.server.core.schedule.ScheduleDelayConstants;
+import io.fluxion.server.infrastructure.schedule.schedule.TimerType;
+import io.fluxion.server.infrastructure.schedule.scheduler.FireExecutor;
+import lombok.Data;
+
+/**
+ * Broker 运行参数
+ *
+ * @author Devil
+ */
+@Data
+public class BrokerConfig {
+
+    /**
+     * 调度加载间隔 秒
+     */
+    private int scheduleLoadIntervalSeconds = (int) ScheduleConstants.LOAD_INTERVAL_SECONDS;
+
+    /**
+     * 调度最大预加载时间 秒，不小于加载间隔
+     */
+    private int scheduleLookAheadSeconds = (int) ScheduleConstants.LOAD_INTERVAL_SECONDS;
+
+    /**
+     * 是否按触发频率计算每个调度的预加载时间
+     */
+    private boolean scheduleAdaptiveLookAhead = false;
+
+    /**
+     * 自适应模式下每个调度每次大约创建的延迟任务数
+     */
+    private int scheduleAdaptiveTriggers = 20;
+
+    /**
+     * 自适应模式下的调度加载间隔 秒，预加载时间不小于两个加载间隔
+     */
+    private int scheduleAdaptiveLoadIntervalSeconds = 30;
+
+    /**
+     * 延迟任务加载间隔 秒
+     */
+    private int delayLoadIntervalSeconds = (int) ScheduleDelayConstants.LOAD_INTERVAL_SECONDS;
+
+    /**
+     * 按 bucket 加载数据的线程数
+     */
+    private int loadPoolSize = Runtime.getRuntime().availableProcessors() * 2;
+
+    /**
+     * 执行流程（execution -> job -> 下发）线程数
+     */
+    private int pipelinePoolSize = Runtime.getRuntime().availableProcessors() * 4;
+
+    /**
+     * 执行流程等待队列长度，满了之后由提交线程执行
+     */
+    private int pipelineQueueSize = 10000;
+
+    /**
+     * 延迟任务时间轮 tick 间隔 毫秒
+     */
+    private long delayTickMillis = 100L;
+
+    /**
+     * 延迟任务时间轮实现
+     */
+    private TimerType delayTimerType = TimerType.HASHED_WHEEL;
+
+    /**
+     * 是否批量触发延迟任务 同一 tick 同一 bucket 的延迟任务合并处理
+     */
+    private boolean delayBatchFire = true;
+
+    /**
+     * 延迟任务触发线程数
+     */
+    private int delayFirePoolSize = Runtime.getRuntime().availableProcessors() * 4;
+
+    /**
+     * 延迟任务触发等待队列长度
+     */
+    private int delayFireQueueSize = 10000;
+
+    /**
+     * 延迟任务触发队列满后的处理策略
+     */
+    private FireExecutor.RejectPolicy delayFireRejectPolicy = FireExecutor.RejectPolicy.CALLER_RUNS;
+
+    /**
+     * 任务进度上报缓冲写入间隔 毫秒，小于等于 0 时每次上报直接写库
+     */
+    private long jobReportFlushMillis = 5000L;
+
+    /**
+     * bucket 数量，只能调大
+     */
+    private int bucketSize = 64;
+
+    /**
+     * bucket 负载上报间隔 秒
+     */
+    private int bucketLoadReportSeconds = 10;
+
+    /**
+     * 节点间 gossip 间隔 毫秒
+     */
+    private long gossipIntervalMillis = 200L;
+
+    /**
+     * phi 超过此值判定节点下线
+     */
+    private double gossipPhiThreshold = 8.0;
+
+    /**
+     * worker 心跳缓冲写入间隔 毫秒，小于等于 0 时每次心跳直接写库
+     */
+    private long workerHeartbeatFlushMillis = 1000L;
+
+    /**
+     * 实际的调度加载间隔 自适应模式下跟随预加载时间缩短
+     */
+    public int scheduleLoadTickSeconds() {
+        return scheduleAdaptiveLookAhead ? scheduleAdaptiveLoadIntervalSeconds : scheduleLoadIntervalSeconds;
+    }
+
+}
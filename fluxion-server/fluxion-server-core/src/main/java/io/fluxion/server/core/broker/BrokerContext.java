@@ -20,6 +20,7 @@ import io.fluxion.common.utils.json.JacksonUtils;
 import io.fluxion.remote.core.api.Request;
 import io.fluxion.remote.core.api.Response;
 import io.fluxion.remote.core.api.request.broker.BrokerPingRequest;
+import io.fluxion.remote.core.api.response.broker.BrokerPingResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -55,8 +56,8 @@ public class BrokerContext {
         if (node.host().equals(host) && node.port() == port) {
             return true; // 当前节点直接返回
         }
-        Response<Boolean> response = call(API_BROKER_PING, host, port, new BrokerPingRequest());
-        return response.getData();
+        Response<BrokerPingResponse> response = call(API_BROKER_PING, host, port, new BrokerPingRequest());
+        return response.success();
     }
 
 }
@@ -21,6 +21,10 @@ import io.fluxion.common.utils.MD5Utils;
 import io.fluxion.common.utils.time.Formatters;
 import io.fluxion.common.utils.time.LocalTimeUtils;
 import io.fluxion.common.utils.time.TimeUtils;
+import io.fluxion.remote.core.api.Response;
+import io.fluxion.remote.core.api.dto.BrokerMemberDTO;
+import io.fluxion.remote.core.api.request.broker.BrokerPingRequest;
+import io.fluxion.remote.core.api.response.broker.BrokerPingResponse;
 import io.fluxion.remote.core.constants.Protocol;
 import io.fluxion.server.core.broker.cmd.BucketRebalanceCmd;
 import io.fluxion.server.infrastructure.cqrs.Cmd;
@@ -34,17 +38,28 @@ import javax.annotation.Resource;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TimerTask;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+import static io.fluxion.remote.core.constants.BrokerRemoteConstant.API_BROKER_PING;
+
 /**
  * 内存中缓存的 broker节点信息
+ * 节点间通过 ping 交换成员和心跳计数 (gossip)，按 phi accrual 判断下线。
+ * 数据库只保存种子，用于启动时发现其它节点以及分区恢复后重新联系。
  *
  * @author Devil
  * @since 2022/7/20
@@ -53,50 +68,105 @@ import java.util.stream.Collectors;
 @Component
 public class BrokerManger {
 
+    /**
+     * 每轮随机 ping 的节点数
+     */
+    private static final int FANOUT = 3;
+
+    /**
+     * 判定下线后保留成员的时间，避免其它节点传来的旧信息把它重新加回来
+     */
+    private static final long TOMBSTONE_MILLIS = 60000;
+
+    /**
+     * 启动时等待种子节点返回的时间
+     */
+    private static final long BOOTSTRAP_TIMEOUT_MILLIS = 3000;
+
+    /**
+     * 检测任务延迟超过多少个间隔认为是本节点暂停
+     */
+    private static final int PAUSE_INTERVALS = 5;
+
+    /**
+     * 大部分节点同时可疑时 持续多少个间隔才确认下线
+     */
+    private static final int CONFIRM_INTERVALS = 10;
+
     @Resource
     private BrokerEntityRepo brokerEntityRepo;
 
     /**
-     * 心跳时间间隔，毫秒
+     * gossip 间隔，毫秒
      */
-    private Duration heartbeatInterval;
+    private long gossipIntervalMillis;
+
+    private double phiThreshold;
 
     /**
-     * 心跳超时时间，毫秒
+     * 种子写库和重新加载的间隔
      */
-    private Duration heartbeatTimeout;
+    private Duration seedInterval;
 
     private ScheduledExecutorService scheduledExecutorService;
 
+    private ExecutorService gossipExecutor;
+
     private static final Map<String, BrokerNode> NODES = new ConcurrentHashMap<>();
 
+    /**
+     * 其它节点 包括已判定下线但还在保留期的
+     */
+    private final Map<String, Member> members = new ConcurrentHashMap<>();
+
+    /**
+     * 从数据库发现 还没有联系上的节点
+     */
+    private final Map<String, BrokerNode> seeds = new ConcurrentHashMap<>();
+
+    /**
+     * 正在 ping 的节点，上一次没返回前不重复发送
+     */
+    private final Set<String> pinging = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 当前节点的心跳计数 从启动时间开始，重启后仍比之前的大
+     */
+    private final AtomicLong heartbeat = new AtomicLong();
+
     private String version = "";
 
     public void start() {
-        this.heartbeatInterval = Duration.ofMillis(3000);
-        this.heartbeatTimeout = Duration.ofMillis(10000);
+        BrokerConfig config = BrokerContext.broker().config();
+        this.gossipIntervalMillis = config.getGossipIntervalMillis();
+        this.phiThreshold = config.getGossipPhiThreshold();
+        this.seedInterval = Duration.ofMillis(30000);
+        this.heartbeat.set(TimeUtils.currentTimeMillis());
         this.scheduledExecutorService = new ScheduledThreadPoolExecutor(
-            Runtime.getRuntime().availableProcessors() * 4,
-            NamedThreadFactory.newInstance("FluxionBrokerManger")
+            4, NamedThreadFactory.newInstance("FluxionBrokerManger")
         );
+        this.gossipExecutor = Executors.newCachedThreadPool(NamedThreadFactory.newInstance("FluxionBrokerGossip"));
 
         // 放入本地
         BrokerNode node = BrokerContext.broker().node();
         NODES.put(node.id(), node);
+        changeVersion();
 
+        // 先联系种子节点获取成员，避免只看到自己而占用其它节点的 bucket
+        SeedTask seedTask = new SeedTask();
+        seedTask.run();
+        bootstrap();
         // 处理bucket
         Cmd.send(new BucketRebalanceCmd());
-        // 开启定时任务 维持心跳
+
         scheduledExecutorService.scheduleAtFixedRate(
-            new HeartbeatTask(), 0, heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS
+            new GossipTask(), gossipIntervalMillis, gossipIntervalMillis, TimeUnit.MILLISECONDS
         );
-
-        // 开启定时任务，监听broker心跳情况
         scheduledExecutorService.scheduleAtFixedRate(
-            new NodeOnlineCheckTask(), 0, heartbeatTimeout.toMillis(), TimeUnit.MILLISECONDS
+            new FailureCheckTask(), gossipIntervalMillis, gossipIntervalMillis, TimeUnit.MILLISECONDS
         );
         scheduledExecutorService.scheduleAtFixedRate(
-            new NodeOfflineCheckTask(), 0, heartbeatTimeout.toMillis(), TimeUnit.MILLISECONDS
+            seedTask, seedInterval.toMillis(), seedInterval.toMillis(), TimeUnit.MILLISECONDS
         );
     }
 
@@ -104,22 +174,52 @@ public class BrokerManger {
      * 节点上线
      */
     public void online(BrokerNode node) {
-        NODES.putIfAbsent(node.id(), node);
+        boolean added = NODES.putIfAbsent(node.id(), node) == null;
         changeVersion();
         if (log.isDebugEnabled()) {
             log.debug("[BrokerManger] online {}", NODES);
         }
+        if (added) {
+            rebalance();
+        }
     }
 
     /**
      * 节点下线
      */
     public void offline(BrokerNode node) {
-        NODES.remove(node.id());
+        boolean removed = NODES.remove(node.id()) != null;
         changeVersion();
         if (log.isDebugEnabled()) {
             log.debug("[BrokerManger] offline {}", NODES);
         }
+        if (removed) {
+            rebalance();
+        }
+    }
+
+    /**
+     * 处理其它节点的 ping 合并对方的成员后返回自己已知的
+     */
+    public List<BrokerMemberDTO> gossip(List<BrokerMemberDTO> members) {
+        merge(members);
+        return digest();
+    }
+
+    /**
+     * 节点变化后异步重新分配 bucket
+     */
+    private void rebalance() {
+        if (scheduledExecutorService == null) {
+            return;
+        }
+        scheduledExecutorService.execute(() -> {
+            try {
+                Cmd.send(new BucketRebalanceCmd());
+            } catch (Exception e) {
+                log.error("[BrokerManger] rebalance fail", e);
+            }
+        });
     }
 
     private void changeVersion() {
@@ -147,6 +247,89 @@ public class BrokerManger {
 
     public void stop() {
         scheduledExecutorService.shutdown();
+        gossipExecutor.shutdown();
+    }
+
+    /**
+     * 并行 ping 所有种子节点 等待返回或超时
+     */
+    private void bootstrap() {
+        List<Future<?>> futures = new ArrayList<>();
+        for (BrokerNode seed : seeds.values()) {
+            futures.add(gossipExecutor.submit(() -> ping(seed)));
+        }
+        long deadline = TimeUtils.currentTimeMillis() + BOOTSTRAP_TIMEOUT_MILLIS;
+        for (Future<?> future : futures) {
+            try {
+                future.get(Math.max(deadline - TimeUtils.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                // 联系不上的种子之后重试
+            }
+        }
+    }
+
+    private void ping(BrokerNode target) {
+        if (!pinging.add(target.id())) {
+            return;
+        }
+        try {
+            BrokerPingRequest request = new BrokerPingRequest();
+            request.setMembers(digest());
+            Response<BrokerPingResponse> response = BrokerContext.call(API_BROKER_PING, target.host(), target.port(), request);
+            if (response != null && response.success() && response.getData() != null) {
+                merge(response.getData().getMembers());
+            }
+        } catch (Exception e) {
+            if (log.isDebugEnabled()) {
+                log.debug("[BrokerManger] ping fail {}", target, e);
+            }
+        } finally {
+            pinging.remove(target.id());
+        }
+    }
+
+    /**
+     * 当前节点和已知存活成员
+     */
+    private List<BrokerMemberDTO> digest() {
+        List<BrokerMemberDTO> digest = new ArrayList<>();
+        digest.add(member(BrokerContext.broker().node(), heartbeat.get()));
+        for (Member member : members.values()) {
+            if (member.alive) {
+                digest.add(member(member.node, member.heartbeat));
+            }
+        }
+        return digest;
+    }
+
+    private void merge(List<BrokerMemberDTO> dtos) {
+        if (CollectionUtils.isEmpty(dtos)) {
+            return;
+        }
+        long now = TimeUtils.currentTimeMillis();
+        String selfId = BrokerContext.broker().id();
+        for (BrokerMemberDTO dto : dtos) {
+            BrokerNode node = new BrokerNode(Protocol.parse(dto.getProtocol()), dto.getHost(), dto.getPort(), dto.getLoad());
+            if (selfId.equals(node.id())) {
+                continue;
+            }
+            seeds.remove(node.id());
+            Member member = members.computeIfAbsent(node.id(), id -> new Member(node));
+            if (member.update(dto.getHeartbeat(), dto.getLoad(), now)) {
+                log.info("[BrokerManger] member alive {}", member.node);
+                online(member.node);
+            }
+        }
+    }
+
+    private BrokerMemberDTO member(BrokerNode node, long heartbeat) {
+        BrokerMemberDTO dto = new BrokerMemberDTO();
+        dto.setProtocol(node.protocol().value);
+        dto.setHost(node.host());
+        dto.setPort(node.port());
+        dto.setLoad(node.load());
+        dto.setHeartbeat(heartbeat);
+        return dto;
     }
 
     private BrokerNode node(BrokerEntity entity) {
@@ -166,80 +349,190 @@ public class BrokerManger {
         return entity;
     }
 
-    private class HeartbeatTask extends TimerTask {
-        private static final String TASK_NAME = "[HeartbeatTask]";
+    private class Member {
+
+        private final BrokerNode node;
+
+        private PhiAccrualDetector detector;
+
+        private volatile long heartbeat = -1;
+
+        private volatile boolean alive;
+
+        private long deadAt;
+
+        Member(BrokerNode node) {
+            this.node = node;
+        }
+
+        /**
+         * 收到更新的心跳计数
+         *
+         * @return 是否从下线变为存活
+         */
+        synchronized boolean update(long heartbeat, int load, long now) {
+            if (heartbeat <= this.heartbeat) {
+                return false;
+            }
+            this.heartbeat = heartbeat;
+            node.load(load);
+            if (alive) {
+                detector.heartbeat(now);
+                return false;
+            }
+            // 下线期间的间隔不计入
+            detector = new PhiAccrualDetector(gossipIntervalMillis * 2, Math.max(gossipIntervalMillis / 2, 100));
+            detector.heartbeat(now);
+            alive = true;
+            return true;
+        }
+
+        synchronized boolean suspected(long now) {
+            return alive && detector.phi(now) > phiThreshold;
+        }
+
+        /**
+         * @return 是否从存活变为下线
+         */
+        synchronized boolean down(long now) {
+            if (!alive) {
+                return false;
+            }
+            alive = false;
+            deadAt = now;
+            return true;
+        }
+
+        /**
+         * 本节点暂停后重新计时
+         */
+        synchronized void pause(long now) {
+            if (alive) {
+                detector.reset(now);
+            }
+        }
+
+        synchronized boolean expired(long now) {
+            return !alive && now - deadAt > TOMBSTONE_MILLIS;
+        }
+    }
+
+    private class GossipTask extends TimerTask {
 
         @Override
         public void run() {
-            BrokerNode node = BrokerContext.broker().node();
-            BrokerEntity entity = entity(node);
             try {
-                brokerEntityRepo.saveAndFlush(entity);
-                if (log.isDebugEnabled()) {
-                    log.debug("{} send heartbeat id: {} time:{}",
-                        TASK_NAME, node.id(), LocalTimeUtils.format(entity.getLastHeartbeatAt(), Formatters.YMD_HMS)
-                    );
+                heartbeat.incrementAndGet();
+                List<Member> alive = members.values().stream().filter(m -> m.alive).collect(Collectors.toList());
+                Collections.shuffle(alive, ThreadLocalRandom.current());
+                for (Member member : alive.subList(0, Math.min(FANOUT, alive.size()))) {
+                    gossipExecutor.execute(() -> ping(member.node));
+                }
+                for (BrokerNode seed : seeds.values()) {
+                    if (seeds.remove(seed.id(), seed)) {
+                        gossipExecutor.execute(() -> ping(seed));
+                    }
                 }
             } catch (Exception e) {
-                log.error("{} send heartbeat fail", TASK_NAME, e);
+                log.error("[GossipTask] fail", e);
             }
         }
 
     }
 
-    private class NodeOnlineCheckTask extends TimerTask {
+    private class FailureCheckTask extends TimerTask {
 
-        private static final String TASK_NAME = "[NodeOnlineCheckTask]";
+        private long lastRunAt = -1;
 
-        LocalDateTime lastCheckAt = TimeUtils.currentLocalDateTime().plusSeconds(-heartbeatTimeout.getSeconds());
+        /**
+         * 大部分节点开始同时可疑的时间
+         */
+        private long massSuspectAt = -1;
 
         @Override
         public void run() {
             try {
-                LocalDateTime startTime = lastCheckAt;
-                LocalDateTime endTime = TimeUtils.currentLocalDateTime();
-                if (log.isDebugEnabled()) {
-                    log.info("{} checkOnline start:{} end:{}", TASK_NAME, LocalTimeUtils.format(startTime, Formatters.YMD_HMS), LocalTimeUtils.format(endTime, Formatters.YMD_HMS));
+                long now = TimeUtils.currentTimeMillis();
+                long gap = lastRunAt < 0 ? 0 : now - lastRunAt;
+                lastRunAt = now;
+                if (gap > gossipIntervalMillis * PAUSE_INTERVALS) {
+                    // 本节点暂停（GC 等）期间收不到心跳，不代表其它节点故障，重新计时
+                    log.warn("[FailureCheckTask] check delayed {}ms, reset detectors", gap);
+                    members.values().forEach(member -> member.pause(now));
+                    return;
+                }
+                List<Member> alive = members.values().stream().filter(m -> m.alive).collect(Collectors.toList());
+                List<Member> suspects = alive.stream().filter(m -> m.suspected(now)).collect(Collectors.toList());
+                if (!suspects.isEmpty() && suspects.size() * 2 > alive.size()) {
+                    // 大部分节点同时可疑 更可能是本节点的问题，持续一段时间再确认，避免直接重新分配所有 bucket
+                    if (massSuspectAt < 0) {
+                        massSuspectAt = now;
+                        log.warn("[FailureCheckTask] {}/{} members suspected, wait for confirm", suspects.size(), alive.size());
+                    }
+                    if (now - massSuspectAt < gossipIntervalMillis * CONFIRM_INTERVALS) {
+                        suspects = Collections.emptyList();
+                    }
+                } else {
+                    massSuspectAt = -1;
                 }
-                List<BrokerEntity> onlineBrokers = brokerEntityRepo.findByLastHeartbeatAtBetween(startTime, endTime);
-                if (CollectionUtils.isNotEmpty(onlineBrokers)) {
-                    for (BrokerEntity entity : onlineBrokers) {
-                        online(node(entity));
+                for (Member member : suspects) {
+                    if (member.down(now)) {
+                        log.info("[FailureCheckTask] member offline {}", member.node);
+                        offline(member.node);
+                    }
+                }
+                for (Member member : members.values()) {
+                    if (member.expired(now)) {
+                        members.remove(member.node.id(), member);
                     }
                 }
-                lastCheckAt = endTime;
             } catch (Exception e) {
-                log.error("{} check fail", TASK_NAME, e);
+                log.error("[FailureCheckTask] fail", e);
             }
         }
 
     }
 
-    private class NodeOfflineCheckTask extends TimerTask {
-
-        private static final String TASK_NAME = "[NodeOfflineCheckTask]";
+    /**
+     * 写入当前节点作为种子，加载最近写入的种子中还没联系上的节点
+     */
+    private class SeedTask extends TimerTask {
 
-        LocalDateTime lastCheckAt = TimeUtils.currentLocalDateTime().plusSeconds(-2 * heartbeatTimeout.getSeconds());
+        private static final String TASK_NAME = "[SeedTask]";
 
         @Override
         public void run() {
+            BrokerNode node = BrokerContext.broker().node();
+            BrokerEntity entity = entity(node);
             try {
-                LocalDateTime startTime = lastCheckAt;
-                LocalDateTime endTime = TimeUtils.currentLocalDateTime().plusSeconds(-heartbeatTimeout.getSeconds());
+                brokerEntityRepo.saveAndFlush(entity);
                 if (log.isDebugEnabled()) {
-                    log.debug("{} checkOffline start:{} end:{}", TASK_NAME, LocalTimeUtils.format(startTime, Formatters.YMD_HMS), LocalTimeUtils.format(endTime, Formatters.YMD_HMS));
+                    log.debug("{} save seed id: {} time:{}",
+                        TASK_NAME, node.id(), LocalTimeUtils.format(entity.getLastHeartbeatAt(), Formatters.YMD_HMS)
+                    );
+                }
+            } catch (Exception e) {
+                log.error("{} save seed fail", TASK_NAME, e);
+            }
+            try {
+                LocalDateTime endTime = TimeUtils.currentLocalDateTime();
+                LocalDateTime startTime = endTime.minus(seedInterval.multipliedBy(2));
+                List<BrokerEntity> entities = brokerEntityRepo.findByLastHeartbeatAtBetween(startTime, endTime);
+                if (CollectionUtils.isEmpty(entities)) {
+                    return;
                 }
-                List<BrokerEntity> offlineBrokers = brokerEntityRepo.findByLastHeartbeatAtBetween(startTime, endTime);
-                if (CollectionUtils.isNotEmpty(offlineBrokers)) {
-                    for (BrokerEntity entity : offlineBrokers) {
-                        offline(node(entity));
+                for (BrokerEntity seedEntity : entities) {
+                    BrokerNode seed = node(seedEntity);
+                    Member member = members.get(seed.id());
+                    if (!seed.id().equals(node.id()) && (member == null || !member.alive)) {
+                        seeds.putIfAbsent(seed.id(), seed);
                     }
                 }
-                lastCheckAt = endTime;
             } catch (Exception e) {
-                log.error("{} check fail", TASK_NAME, e);
+                log.error("{} load seed fail", TASK_NAME, e);
             }
         }
+
     }
 
 }
@@ -57,6 +57,13 @@ public class BrokerNode extends BaseNode {
         return load.get();
     }
 
+    /**
+     * 按 bucket 负载汇总后设置
+     */
+    public void load(int load) {
+        this.load.set(load);
+    }
+
     public void loadIncr(LoadType type) {
         if (type == null) {
             return;
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.fluxion.server.core.broker;
+
+/**
+ * phi accrual 故障检测
+ * 根据历史心跳间隔的分布计算当前未收到心跳的可疑程度 phi，phi = -log10(超过当前间隔的概率)。
+ * 间隔越稳定检测越快，网络抖动时自动放宽。
+ *
+ * @author Devil
+ */
+public class PhiAccrualDetector {
+
+    /**
+     * 保留的最近间隔数
+     */
+    private static final int WINDOW = 100;
+
+    private final long[] intervals = new long[WINDOW];
+
+    private final long minStdDevMillis;
+
+    private int count;
+
+    private int index;
+
+    private long sum;
+
+    private long squaredSum;
+
+    private long lastAt = -1;
+
+    /**
+     * @param firstIntervalMillis 还没有历史时预估的间隔
+     * @param minStdDevMillis     标准差下限 避免间隔过于稳定时误判
+     */
+    public PhiAccrualDetector(long firstIntervalMillis, long minStdDevMillis) {
+        this.minStdDevMillis = minStdDevMillis;
+        // 用预估值作为初始分布
+        add(firstIntervalMillis - firstIntervalMillis / 4);
+        add(firstIntervalMillis + firstIntervalMillis / 4);
+    }
+
+    public synchronized void heartbeat(long now) {
+        if (lastAt >= 0 && now > lastAt) {
+            add(now - lastAt);
+        }
+        lastAt = now;
+    }
+
+    /**
+     * 观察方自己暂停（GC 等）后从当前时间重新计时，暂停期间的间隔不计入分布
+     */
+    public synchronized void reset(long now) {
+        if (lastAt >= 0) {
+            lastAt = now;
+        }
+    }
+
+    public synchronized double phi(long now) {
+        if (lastAt < 0) {
+            return 0;
+        }
+        double mean = (double) sum / count;
+        double variance = (double) squaredSum / count - mean * mean;
+        double stdDev = Math.max(Math.sqrt(Math.max(variance, 0)), minStdDevMillis);
+        double y = ((now - lastAt) - mean) / stdDev;
+        // 正态分布累积函数的 logistic 近似
+        double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+        if (now - lastAt > mean) {
+            return -Math.log10(e / (1 + e));
+        }
+        return -Math.log10(1 - 1 / (1 + e));
+    }
+
+    private void add(long interval) {
+        if (count == WINDOW) {
+            long old = intervals[index];
+            sum -= old;
+            squaredSum -= old * old;
+        } else {
+            count++;
+        }
+        intervals[index] = interval;
+        index = (index + 1) % WINDOW;
+        sum += interval;
+        squaredSum += interval * interval;
+    }
+
+}
@@ -16,14 +16,24 @@
 
 package io.fluxion.server.core.broker.service;
 
+import io.fluxion.common.utils.time.TimeUtils;
+import io.fluxion.server.core.broker.Broker;
 import io.fluxion.server.core.broker.BrokerContext;
 import io.fluxion.server.core.broker.BrokerManger;
 import io.fluxion.server.core.broker.BrokerNode;
 import io.fluxion.server.core.broker.cmd.BucketAllotCmd;
+import io.fluxion.server.core.broker.cmd.BucketLoadReportCmd;
 import io.fluxion.server.core.broker.cmd.BucketRebalanceCmd;
+import io.fluxion.server.core.broker.cmd.BucketTakeOverCmd;
+import io.fluxion.server.core.broker.query.BucketsByBrokerQuery;
+import io.fluxion.server.core.schedule.query.ScheduleDelayBacklogQuery;
+import io.fluxion.server.infrastructure.cqrs.Query;
 import io.fluxion.server.infrastructure.dao.entity.BucketEntity;
 import io.fluxion.server.infrastructure.dao.repository.BucketEntityRepo;
+import io.fluxion.server.infrastructure.dao.tx.TransactionService;
+import io.fluxion.server.infrastructure.exception.PlatformException;
 import io.fluxion.server.infrastructure.lock.DistributedLock;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.axonframework.commandhandling.CommandHandler;
 import org.springframework.stereotype.Service;
@@ -31,21 +41,30 @@ import org.springframework.stereotype.Service;
 import javax.annotation.Resource;
 import javax.transaction.Transactional;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.function.Supplier;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import io.fluxion.server.infrastructure.lock.Lease;
 import java.util.stream.Collectors;
 
 /**
  * 数据分区 bucket
+ * 归属由 rendezvous hash 决定，节点变化时只移动必要的 bucket。
+ * 原节点仍存活时先标记待接管，接管方预加载延迟任务后再切换归属，避免触发空窗。
+ * 各节点定期上报 bucket 的触发频率和积压，rebalance 时按负载而不是数量均衡。
+ * bucket 数量可以调大，已有数据保存了分配时的 bucket 不受影响，新资源按新的数量分配。
  *
  * @author Devil
  */
+@Slf4j
 @Service
 public class BucketCommandService {
 
-    private static final int BUCKET_SIZE = 64;
-
     private static final String REBALANCE_LOCK = "BUCKET_REBALANCE";
 
     @Resource
@@ -57,48 +76,154 @@ public class BucketCommandService {
     @Resource
     private BrokerManger brokerManger;
 
+    @Resource
+    private BucketQueryService bucketQueryService;
+
+    @Resource
+    private TransactionService transactionService;
+
+    @Resource
+    private BucketLoadStats bucketLoadStats;
+
     @CommandHandler
     public BucketAllotCmd.Response handle(BucketAllotCmd cmd) {
         // hash获取id对应的值
-        int bucket = Math.abs(cmd.getResourceId().hashCode()) % BUCKET_SIZE + 1;
+        int bucketSize = BrokerContext.broker().config().getBucketSize();
+        int bucket = Math.abs(cmd.getResourceId().hashCode()) % bucketSize + 1;
         return new BucketAllotCmd.Response(bucket);
     }
 
-    @Transactional
     @CommandHandler
     public void handle(BucketRebalanceCmd cmd) {
-        distributedLock.lock(REBALANCE_LOCK, 10000, -1, (Supplier<Void>) () -> {
-            String brokerId = BrokerContext.broker().id();
-            List<String> brokerIds = brokerManger.allAlive().stream().map(BrokerNode::id).sorted().collect(Collectors.toList());
-            List<BucketEntity> dbEntities = bucketEntityRepo.findAll();
-            List<BucketEntity> entities = new ArrayList<>();
-            // 判断是否需要重新选举
-            for (BucketEntity entity : dbEntities) {
-                if (brokerIds.contains(entity.getBrokerId())) {
-                    continue;
-                }
-                // 为bucket分配新的broker
-                int idx = entity.getBucket() % brokerIds.size();
-                entity.setBrokerId(brokerIds.get(idx));
-                entities.add(entity);
+        Set<String> brokerIds = brokerManger.allAlive().stream().map(BrokerNode::id).collect(Collectors.toSet());
+        if (brokerIds.isEmpty()) {
+            return;
+        }
+        // 先无锁判断，绝大多数情况下不需要变更
+        if (plan(bucketEntityRepo.findAll(), brokerIds).isEmpty()) {
+            return;
+        }
+        try {
+            distributedLock.lock(REBALANCE_LOCK, 10000, -1, (Function<Lease, Void>) lease -> {
+                transactionService.transactional(() -> {
+                    // 暂停超过租约的旧持有者不能覆盖新持有者的分配
+                    if (!distributedLock.fence(lease)) {
+                        return;
+                    }
+                    List<BucketEntity> entities = plan(bucketEntityRepo.findAll(), brokerIds);
+                    if (CollectionUtils.isNotEmpty(entities)) {
+                        bucketEntityRepo.saveAllAndFlush(entities);
+                        log.info("[BucketRebalance] brokers:{} changed:{}", brokerIds, entities.size());
+                    }
+                });
+                return null;
+            });
+        } catch (PlatformException e) {
+            // 其它节点正在处理
+            log.info("[BucketRebalance] skip, {}", e.getMessage());
+        }
+        bucketQueryService.refresh();
+    }
+
+    @Transactional
+    @CommandHandler
+    public BucketTakeOverCmd.Response handle(BucketTakeOverCmd cmd) {
+        boolean success = bucketEntityRepo.takeOver(cmd.getBucket(), BrokerContext.broker().id()) > 0;
+        if (success) {
+            bucketQueryService.refresh();
+        }
+        return new BucketTakeOverCmd.Response(success);
+    }
+
+    @CommandHandler
+    public void handle(BucketLoadReportCmd cmd) {
+        Broker broker = BrokerContext.broker();
+        Map<Integer, Double> fireRates = bucketLoadStats.fireRates();
+        List<Integer> buckets = Query.query(new BucketsByBrokerQuery(broker.id())).getBuckets();
+        if (CollectionUtils.isEmpty(buckets)) {
+            bucketLoadStats.reported(new HashMap<>());
+            broker.node().load(0);
+            return;
+        }
+        int windowSeconds = broker.config().getDelayLoadIntervalSeconds();
+        Map<Integer, Integer> backlogs = Query.query(new ScheduleDelayBacklogQuery(
+            buckets, TimeUtils.currentLocalDateTime().plusSeconds(windowSeconds)
+        )).getBacklogs();
+        Map<Integer, BucketLoadStats.Load> loads = new TreeMap<>();
+        for (Integer bucket : buckets) {
+            double fireRate = fireRates.getOrDefault(bucket, 0D);
+            int backlog = backlogs.getOrDefault(bucket, 0);
+            loads.put(bucket, new BucketLoadStats.Load(fireRate, backlog, BucketPlacement.weight(fireRate, backlog, windowSeconds)));
+        }
+        transactionService.transactional(() -> {
+            for (Map.Entry<Integer, BucketLoadStats.Load> entry : loads.entrySet()) {
+                bucketEntityRepo.reportLoad(entry.getKey(), broker.id(), entry.getValue().fireRate(), entry.getValue().backlog());
             }
+        });
+        bucketLoadStats.reported(loads);
+        // 随心跳上报
+        broker.node().load((int) Math.round(loads.values().stream().mapToDouble(BucketLoadStats.Load::weight).sum()));
+    }
 
-            // 判断是否需要新增
-            Set<Integer> buckets = dbEntities.stream().map(BucketEntity::getBucket).collect(Collectors.toSet());
-            for (int i = 1; i <= BUCKET_SIZE; i++) {
-                if (buckets.contains(i)) {
-                    continue;
-                }
-                BucketEntity entity = new BucketEntity();
-                entity.setBucket(i);
-                entity.setBrokerId(brokerId);
-                entities.add(entity);
+    /**
+     * 计算需要变更的 bucket 返回新对象，不修改传入的数据
+     */
+    private List<BucketEntity> plan(List<BucketEntity> dbEntities, Set<String> brokerIds) {
+        Map<Integer, BucketEntity> current = dbEntities.stream()
+            .collect(Collectors.toMap(BucketEntity::getBucket, Function.identity()));
+        // 已有的 bucket 保留，各节点配置的数量不一致时也不会丢弃
+        Set<Integer> buckets = new TreeSet<>(current.keySet());
+        int bucketSize = BrokerContext.broker().config().getBucketSize();
+        for (int bucket = 1; bucket <= bucketSize; bucket++) {
+            buckets.add(bucket);
+        }
+        int windowSeconds = BrokerContext.broker().config().getDelayLoadIntervalSeconds();
+        Map<Integer, String> owners = new HashMap<>();
+        Map<Integer, Double> weights = new HashMap<>();
+        for (Integer bucket : buckets) {
+            BucketEntity entity = current.get(bucket);
+            if (entity == null || !brokerIds.contains(entity.getBrokerId())) {
+                owners.put(bucket, BucketPlacement.owner(bucket, brokerIds));
+            } else if (brokerIds.contains(entity.getHandoffBrokerId())) {
+                owners.put(bucket, entity.getHandoffBrokerId());
+            } else {
+                owners.put(bucket, entity.getBrokerId());
             }
-            if (CollectionUtils.isNotEmpty(entities)) {
-                bucketEntityRepo.saveAllAndFlush(entities);
+            weights.put(bucket, entity == null ? BucketPlacement.weight(null, null, windowSeconds)
+                : BucketPlacement.weight(entity.getFireRate(), entity.getBacklog(), windowSeconds));
+        }
+        Map<Integer, String> targets = BucketPlacement.balance(owners, weights, brokerIds);
+        List<BucketEntity> entities = new ArrayList<>();
+        for (Map.Entry<Integer, String> entry : targets.entrySet()) {
+            int bucket = entry.getKey();
+            String target = entry.getValue();
+            BucketEntity entity = current.get(bucket);
+            if (entity == null || !brokerIds.contains(entity.getBrokerId())) {
+                // 新增或原节点已下线，无法交接直接分配
+                entities.add(bucketEntity(bucket, target, null, entity));
+            } else if (target.equals(entity.getBrokerId())) {
+                if (entity.getHandoffBrokerId() != null) {
+                    // 节点变化后又回到原节点，取消交接
+                    entities.add(bucketEntity(bucket, target, null, entity));
+                }
+            } else if (!Objects.equals(target, entity.getHandoffBrokerId())) {
+                entities.add(bucketEntity(bucket, entity.getBrokerId(), target, entity));
             }
-            return null;
-        });
+        }
+        return entities;
+    }
+
+    private BucketEntity bucketEntity(int bucket, String brokerId, String handoffBrokerId, BucketEntity old) {
+        BucketEntity entity = new BucketEntity();
+        entity.setBucket(bucket);
+        entity.setBrokerId(brokerId);
+        entity.setHandoffBrokerId(handoffBrokerId);
+        if (old != null) {
+            // 负载保留到新节点上报
+            entity.setFireRate(old.getFireRate());
+            entity.setBacklog(old.getBacklog());
+        }
+        return entity;
     }
 
 }
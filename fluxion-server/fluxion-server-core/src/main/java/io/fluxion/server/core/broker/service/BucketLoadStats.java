@@ -0,0 +1,114 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.fluxion.server.core.broker.service;
+
+import io.fluxion.common.utils.time.TimeUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 当前节点各 bucket 的触发次数，上报时换算为每秒触发次数
+ *
+ * @author Devil
+ */
+@Component
+public class BucketLoadStats {
+
+    private final Map<Integer, LongAdder> fires = new ConcurrentHashMap<>();
+
+    /**
+     * 上次上报时的累计触发次数
+     */
+    private final Map<Integer, Long> reportedFires = new HashMap<>();
+
+    private long reportedAt = TimeUtils.currentTimeMillis();
+
+    private volatile Map<Integer, Load> latest = Collections.emptyMap();
+
+    public void recordFire(int bucket, int count) {
+        fires.computeIfAbsent(bucket, b -> new LongAdder()).add(count);
+    }
+
+    /**
+     * 距上次调用期间各 bucket 每秒触发次数
+     */
+    synchronized Map<Integer, Double> fireRates() {
+        long now = TimeUtils.currentTimeMillis();
+        double seconds = Math.max(now - reportedAt, 1) / 1000.0;
+        Map<Integer, Double> rates = new HashMap<>();
+        for (Map.Entry<Integer, LongAdder> entry : fires.entrySet()) {
+            long sum = entry.getValue().sum();
+            Long last = reportedFires.put(entry.getKey(), sum);
+            rates.put(entry.getKey(), (sum - (last == null ? 0 : last)) / seconds);
+        }
+        reportedAt = now;
+        return rates;
+    }
+
+    void reported(Map<Integer, Load> loads) {
+        latest = Collections.unmodifiableMap(loads);
+    }
+
+    /**
+     * 最近一次上报的负载
+     */
+    public Map<Integer, Load> latest() {
+        return latest;
+    }
+
+    public long fires() {
+        long sum = 0;
+        for (LongAdder adder : fires.values()) {
+            sum += adder.sum();
+        }
+        return sum;
+    }
+
+    public static class Load {
+
+        private final double fireRate;
+
+        private final int backlog;
+
+        private final double weight;
+
+        Load(double fireRate, int backlog, double weight) {
+            this.fireRate = fireRate;
+            this.backlog = backlog;
+            this.weight = weight;
+        }
+
+        public double fireRate() {
+            return fireRate;
+        }
+
+        public int backlog() {
+            return backlog;
+        }
+
+        public double weight() {
+            return weight;
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.server.core.broker.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * bucket 放置 rendezvous hash
+ * 每个 bucket 选择与之 hash 值最大的 broker，节点加入或离开时只有归属于变化节点的 bucket 会移动
+ * 按负载均衡时在现有归属上把重的节点的 bucket 移到轻的节点，直到差距在 {@link #TOLERANCE} 以内
+ *
+ * @author Devil
+ */
+public final class BucketPlacement {
+
+    /**
+     * 最重与最轻节点的差距超过平均负载的比例才移动
+     */
+    static final double TOLERANCE = 0.2;
+
+    /**
+     * 每轮最多移动的 bucket 数，剩余的下一轮继续，避免同时大量交接
+     */
+    static final int MAX_MOVES = 16;
+
+    private BucketPlacement() {
+    }
+
+    public static String owner(int bucket, Collection<String> brokerIds) {
+        String owner = null;
+        long max = Long.MIN_VALUE;
+        for (String brokerId : brokerIds) {
+            long score = score(bucket, brokerId);
+            if (owner == null || score > max || (score == max && brokerId.compareTo(owner) < 0)) {
+                owner = brokerId;
+                max = score;
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * 各节点结果一致 不依赖 JVM 的随机 hash 种子
+     */
+    static long score(int bucket, String brokerId) {
+        long h = ((long) brokerId.hashCode() << 32) ^ (bucket & 0xFFFFFFFFL);
+        // splitmix64
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+
+    /**
+     * bucket 的负载，基础值 1 使空闲时按数量均衡
+     *
+     * @param fireRate      每秒触发次数
+     * @param backlog       窗口内待触发的延迟任务数
+     * @param windowSeconds 窗口 秒
+     */
+    public static double weight(Double fireRate, Integer backlog, int windowSeconds) {
+        double rate = fireRate == null ? 0 : fireRate;
+        double pending = backlog == null || windowSeconds <= 0 ? 0 : (double) backlog / windowSeconds;
+        return 1 + Math.max(rate, 0) + Math.max(pending, 0);
+    }
+
+    /**
+     * 按负载调整归属
+     *
+     * @param owners  bucket -> 当前归属，broker 需都在 brokerIds 中
+     * @param weights bucket -> 负载
+     * @return 调整后的 bucket -> broker，不修改传入的数据
+     */
+    public static Map<Integer, String> balance(Map<Integer, String> owners, Map<Integer, Double> weights, Collection<String> brokerIds) {
+        Map<Integer, String> result = new TreeMap<>(owners);
+        if (brokerIds.size() < 2) {
+            return result;
+        }
+        Map<String, Double> loads = new TreeMap<>();
+        for (String brokerId : brokerIds) {
+            loads.put(brokerId, 0D);
+        }
+        double total = 0;
+        Map<Integer, Double> bucketWeights = new HashMap<>();
+        for (Map.Entry<Integer, String> entry : result.entrySet()) {
+            double weight = weights.getOrDefault(entry.getKey(), 1D);
+            bucketWeights.put(entry.getKey(), weight);
+            loads.merge(entry.getValue(), weight, Double::sum);
+            total += weight;
+        }
+        double threshold = total / brokerIds.size() * TOLERANCE;
+        for (int moves = 0; moves < MAX_MOVES; moves++) {
+            String heaviest = null;
+            String lightest = null;
+            for (Map.Entry<String, Double> entry : loads.entrySet()) {
+                if (heaviest == null || entry.getValue() > loads.get(heaviest)) {
+                    heaviest = entry.getKey();
+                }
+                if (lightest == null || entry.getValue() < loads.get(lightest)) {
+                    lightest = entry.getKey();
+                }
+            }
+            double gap = loads.get(heaviest) - loads.get(lightest);
+            if (gap <= threshold) {
+                break;
+            }
+            // 选最接近差距一半的 bucket，移动后两者差距最小
+            Integer best = null;
+            double bestDiff = Double.MAX_VALUE;
+            for (Map.Entry<Integer, String> entry : result.entrySet()) {
+                if (!heaviest.equals(entry.getValue())) {
+                    continue;
+                }
+                double weight = bucketWeights.get(entry.getKey());
+                double diff = Math.abs(weight - gap / 2);
+                if (weight < gap && diff < bestDiff) {
+                    best = entry.getKey();
+                    bestDiff = diff;
+                }
+            }
+            if (best == null) {
+                // 单个 bucket 过重 无法再均衡
+                break;
+            }
+            double weight = bucketWeights.get(best);
+            result.put(best, lightest);
+            loads.merge(heaviest, -weight, Double::sum);
+            loads.merge(lightest, weight, Double::sum);
+        }
+        return result;
+    }
+
+}
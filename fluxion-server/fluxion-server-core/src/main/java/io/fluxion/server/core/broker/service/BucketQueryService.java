@@ -16,32 +16,150 @@
 
 package io.fluxion.server.core.broker.service;
 
+import io.fluxion.common.utils.time.TimeUtils;
+import io.fluxion.server.core.broker.BrokerContext;
+import io.fluxion.server.core.broker.BrokerManger;
+import io.fluxion.server.core.broker.query.BucketOwnedQuery;
 import io.fluxion.server.core.broker.query.BucketsByBrokerQuery;
+import io.fluxion.server.core.broker.query.BucketsHandoffQuery;
+import io.fluxion.server.infrastructure.cqrs.DirectDispatch;
 import io.fluxion.server.infrastructure.dao.entity.BucketEntity;
 import io.fluxion.server.infrastructure.dao.repository.BucketEntityRepo;
 import org.axonframework.queryhandling.QueryHandler;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 /**
  * 数据分区 bucket
+ * 当前节点负责的 bucket 缓存在内存中，rebalance 后刷新；节点版本变化或超过 {@link #REFRESH_INTERVAL_MS} 后重新加载
  *
  * @author Devil
  */
+@DirectDispatch
 @Service
 public class BucketQueryService {
 
+    /**
+     * 其它节点 rebalance 不会通知当前节点，定期重新加载兜底
+     */
+    private static final long REFRESH_INTERVAL_MS = 10000;
+
     @Resource
     private BucketEntityRepo bucketEntityRepo;
 
+    @Resource
+    private BrokerManger brokerManger;
+
+    private volatile Ownership ownership;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder reloads = new LongAdder();
+
     @QueryHandler
     public BucketsByBrokerQuery.Response handle(BucketsByBrokerQuery query) {
-        List<BucketEntity> entities = bucketEntityRepo.findByBrokerId(query.getBrokerId());
+        if (!query.getBrokerId().equals(BrokerContext.broker().id())) {
+            return new BucketsByBrokerQuery.Response(findBuckets(query.getBrokerId()));
+        }
+        return new BucketsByBrokerQuery.Response(ownership().buckets);
+    }
+
+    @QueryHandler
+    public BucketOwnedQuery.Response handle(BucketOwnedQuery query) {
+        Integer bucket = query.getBucket();
+        return new BucketOwnedQuery.Response(bucket != null && ownership().bits.get(bucket));
+    }
+
+    @QueryHandler
+    public BucketsHandoffQuery.Response handle(BucketsHandoffQuery query) {
+        List<BucketEntity> entities = bucketEntityRepo.findByHandoffBrokerId(query.getBrokerId());
         List<Integer> buckets = entities == null ? Collections.emptyList() : entities.stream().map(BucketEntity::getBucket).collect(Collectors.toList());
-        return new BucketsByBrokerQuery.Response(buckets);
+        return new BucketsHandoffQuery.Response(buckets);
+    }
+
+    /**
+     * 重新加载当前节点负责的 bucket
+     */
+    public void refresh() {
+        String version = brokerManger.version();
+        List<Integer> buckets = findBuckets(BrokerContext.broker().id());
+        BitSet bits = new BitSet();
+        for (Integer bucket : buckets) {
+            bits.set(bucket);
+        }
+        ownership = new Ownership(Collections.unmodifiableList(buckets), bits, version, TimeUtils.currentTimeMillis());
+        reloads.increment();
+    }
+
+    /**
+     * 缓存已加载多久 毫秒
+     */
+    public long ownershipAgeMs() {
+        Ownership current = ownership;
+        return current == null ? -1 : TimeUtils.currentTimeMillis() - current.loadedAt;
+    }
+
+    /**
+     * 缓存的节点版本是否已经落后
+     */
+    public boolean ownershipStale() {
+        Ownership current = ownership;
+        return current == null || !current.version.equals(brokerManger.version());
+    }
+
+    public long ownershipHits() {
+        return hits.sum();
+    }
+
+    public long ownershipReloads() {
+        return reloads.sum();
+    }
+
+    private Ownership ownership() {
+        Ownership current = ownership;
+        if (current == null
+            || !current.version.equals(brokerManger.version())
+            || TimeUtils.currentTimeMillis() - current.loadedAt > REFRESH_INTERVAL_MS) {
+            synchronized (this) {
+                if (current == ownership) {
+                    refresh();
+                }
+            }
+            return ownership;
+        }
+        hits.increment();
+        return current;
+    }
+
+    private List<Integer> findBuckets(String brokerId) {
+        List<BucketEntity> entities = bucketEntityRepo.findByBrokerId(brokerId);
+        return entities == null ? Collections.emptyList() : entities.stream().map(BucketEntity::getBucket).collect(Collectors.toList());
+    }
+
+    private static class Ownership {
+
+        private final List<Integer> buckets;
+
+        private final BitSet bits;
+
+        /**
+         * 加载时的节点版本
+         */
+        private final String version;
+
+        private final long loadedAt;
+
+        Ownership(List<Integer> buckets, BitSet bits, String version, long loadedAt) {
+            this.buckets = buckets;
+            this.bits = bits;
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
     }
 }
@@ -16,21 +16,30 @@
 
 package io.fluxion.server.core.broker.task;
 
+import io.fluxion.server.core.broker.Broker;
+import io.fluxion.server.core.broker.BrokerContext;
 import io.fluxion.server.core.broker.cmd.BucketRebalanceCmd;
+import io.fluxion.server.core.broker.cmd.BucketTakeOverCmd;
+import io.fluxion.server.core.broker.query.BucketsHandoffQuery;
 import io.fluxion.server.infrastructure.cqrs.Cmd;
+import io.fluxion.server.infrastructure.cqrs.Query;
 import io.fluxion.server.infrastructure.schedule.ScheduleType;
+import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
  * bucket对应的broker无效的，重新进行数据绑定
+ * 同时接管分配给当前节点的 bucket：先预加载延迟任务，再切换归属
  *
  * @author Devil
  */
+@Slf4j
 public class BucketChecker extends CoreTask {
 
-    private static final int INTERVAL = 30;
-    private static final TimeUnit UNIT = TimeUnit.DAYS;
+    private static final int INTERVAL = 10;
+    private static final TimeUnit UNIT = TimeUnit.SECONDS;
 
     public BucketChecker() {
         super(0, INTERVAL, UNIT);
@@ -38,7 +47,22 @@ public class BucketChecker extends CoreTask {
 
     @Override
     public void run() {
-        Cmd.send(new BucketRebalanceCmd());
+        try {
+            Cmd.send(new BucketRebalanceCmd());
+            takeOver();
+        } catch (Exception e) {
+            log.error("[{}] execute fail", this.getClass().getSimpleName(), e);
+        }
+    }
+
+    private void takeOver() {
+        Broker broker = BrokerContext.broker();
+        List<Integer> buckets = Query.query(new BucketsHandoffQuery(broker.id())).getBuckets();
+        for (Integer bucket : buckets) {
+            broker.scheduleDelayLoader().preload(bucket);
+            boolean success = Cmd.send(new BucketTakeOverCmd(bucket)).isSuccess();
+            log.info("[{}] take over bucket:{} success:{}", this.getClass().getSimpleName(), bucket, success);
+        }
     }
 
     @Override
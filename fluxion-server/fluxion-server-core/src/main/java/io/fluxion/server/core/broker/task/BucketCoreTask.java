@@ -0,0 +1,91 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.server.core.broker.task;
+
+import io.fluxion.server.core.broker.BrokerContext;
+import io.fluxion.server.core.broker.query.BucketsByBrokerQuery;
+import io.fluxion.server.infrastructure.cqrs.Query;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * 按 bucket 拆分的核心任务
+ * 每个 bucket 作为独立任务提交到加载线程池并发执行，上一轮还未完成的 bucket 本轮跳过，慢的 bucket 不会阻塞其它 bucket
+ *
+ * @author Devil
+ */
+@Slf4j
+public abstract class BucketCoreTask extends CoreTask {
+
+    /**
+     * 执行中的 bucket
+     */
+    private final Set<Integer> running = ConcurrentHashMap.newKeySet();
+
+    public BucketCoreTask(int delay, int interval, TimeUnit unit) {
+        super(delay, interval, unit);
+    }
+
+    /**
+     * 当前节点负责的 bucket
+     */
+    protected List<Integer> ownedBuckets() {
+        String brokerId = BrokerContext.broker().id();
+        return Query.query(new BucketsByBrokerQuery(brokerId)).getBuckets();
+    }
+
+    /**
+     * 每个 bucket 提交一个任务
+     *
+     * @return 本轮提交的任务全部完成
+     */
+    protected CompletableFuture<Void> dispatch(List<Integer> buckets, IntConsumer loader) {
+        Executor executor = BrokerContext.broker().loadExecutor();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(buckets.size());
+        for (Integer bucket : buckets) {
+            if (!running.add(bucket)) {
+                log.warn("[{}] bucket:{} is still running, skip", this.getClass().getSimpleName(), bucket);
+                continue;
+            }
+            try {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        loader.accept(bucket);
+                    } catch (Exception e) {
+                        log.error("[{}] bucket:{} execute fail", this.getClass().getSimpleName(), bucket, e);
+                    } finally {
+                        running.remove(bucket);
+                    }
+                }, executor));
+            } catch (RejectedExecutionException e) {
+                running.remove(bucket);
+                log.warn("[{}] bucket:{} rejected, skip", this.getClass().getSimpleName(), bucket);
+            }
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+}
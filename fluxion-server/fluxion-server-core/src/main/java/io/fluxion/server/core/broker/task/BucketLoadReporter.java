@@ -0,0 +1,52 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.fluxion.server.core.broker.task;
+
+import io.fluxion.server.core.broker.cmd.BucketLoadReportCmd;
+import io.fluxion.server.infrastructure.cqrs.Cmd;
+import io.fluxion.server.infrastructure.schedule.ScheduleType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 定时上报 bucket 负载，rebalance 时按负载分配
+ *
+ * @author Devil
+ */
+@Slf4j
+public class BucketLoadReporter extends CoreTask {
+
+    public BucketLoadReporter(int intervalSeconds) {
+        super(0, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void run() {
+        try {
+            Cmd.send(new BucketLoadReportCmd());
+        } catch (Exception e) {
+            log.error("[{}] execute fail", this.getClass().getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public ScheduleType scheduleType() {
+        return ScheduleType.FIXED_DELAY;
+    }
+}
@@ -16,14 +16,10 @@
 
 package io.fluxion.server.core.broker.task;
 
-import io.fluxion.common.thread.CommonThreadPool;
 import io.fluxion.common.utils.time.TimeUtils;
 import io.fluxion.server.core.schedule.ScheduleDelay;
 import io.fluxion.server.core.schedule.cmd.ScheduleDelayDeleteByIdsCmd;
-import io.fluxion.server.core.schedule.cmd.ScheduleDelaysLoadCmd;
 import io.fluxion.server.core.schedule.query.ScheduleDelayNextCleanQuery;
-import io.fluxion.server.core.schedule.query.ScheduleDelayNextTriggerQuery;
-import io.fluxion.server.infrastructure.concurrent.LoggingTask;
 import io.fluxion.server.infrastructure.cqrs.Cmd;
 import io.fluxion.server.infrastructure.cqrs.Query;
 import io.fluxion.server.infrastructure.schedule.ScheduleType;
@@ -39,7 +35,7 @@ import java.util.stream.Collectors;
  *
  * @author Devil
  */
-public class DataCleaner extends CoreTask {
+public class DataCleaner extends BucketCoreTask {
 
     private static final int INTERVAL = 7;
     private static final TimeUnit UNIT = TimeUnit.DAYS;
@@ -52,21 +48,22 @@ public class DataCleaner extends CoreTask {
     public void run() {
         LocalDateTime endAt = TimeUtils.currentLocalDateTime().plusDays(-INTERVAL);
         // schedule_delay
-        CommonThreadPool.IO.submit(new LoggingTask(() -> {
-            String lastId = "";
-            List<ScheduleDelay> delays = Query.query(new ScheduleDelayNextCleanQuery(100, lastId, endAt)).getDelays();
-            while (CollectionUtils.isNotEmpty(delays)) {
-                Cmd.send(new ScheduleDelayDeleteByIdsCmd(delays.stream().map(ScheduleDelay::getId).collect(Collectors.toList())));
-                // 拉取后续的
-                lastId = delays.get(delays.size() - 1).getDelayId();
-                delays = Query.query(new ScheduleDelayNextCleanQuery(100, lastId, endAt)).getDelays();
-            }
-        }));
+        dispatch(ownedBuckets(), bucket -> cleanScheduleDelay(bucket, endAt));
         // broker
         // worker
         // lock
     }
 
+    private void cleanScheduleDelay(int bucket, LocalDateTime endAt) {
+        List<ScheduleDelay> delays = Query.query(new ScheduleDelayNextCleanQuery(100, bucket, null, "", endAt)).getDelays();
+        while (CollectionUtils.isNotEmpty(delays)) {
+            Cmd.send(new ScheduleDelayDeleteByIdsCmd(delays.stream().map(ScheduleDelay::getId).collect(Collectors.toList())));
+            // 拉取后续的
+            ScheduleDelay last = delays.get(delays.size() - 1);
+            delays = Query.query(new ScheduleDelayNextCleanQuery(100, bucket, last.getId().getTriggerAt(), last.getDelayId(), endAt)).getDelays();
+        }
+    }
+
     @Override
     public ScheduleType scheduleType() {
         return ScheduleType.FIXED_DELAY;
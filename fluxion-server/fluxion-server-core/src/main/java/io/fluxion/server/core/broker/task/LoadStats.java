@@ -0,0 +1,69 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.server.core.broker.task;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 加载统计 扫描数与实际触发数
+ *
+ * @author Devil
+ */
+public class LoadStats {
+
+    private final LongAdder totalScanned = new LongAdder();
+
+    private final LongAdder totalTriggered = new LongAdder();
+
+    private volatile long lastScanned;
+
+    private volatile long lastTriggered;
+
+    private volatile long lastCostMs;
+
+    /**
+     * 记录一次加载
+     */
+    public void record(long scanned, long triggered, long costMs) {
+        totalScanned.add(scanned);
+        totalTriggered.add(triggered);
+        lastScanned = scanned;
+        lastTriggered = triggered;
+        lastCostMs = costMs;
+    }
+
+    public long totalScanned() {
+        return totalScanned.sum();
+    }
+
+    public long totalTriggered() {
+        return totalTriggered.sum();
+    }
+
+    public long lastScanned() {
+        return lastScanned;
+    }
+
+    public long lastTriggered() {
+        return lastTriggered;
+    }
+
+    public long lastCostMs() {
+        return lastCostMs;
+    }
+
+}
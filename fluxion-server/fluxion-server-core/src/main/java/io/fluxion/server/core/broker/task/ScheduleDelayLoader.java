@@ -17,7 +17,6 @@
 package io.fluxion.server.core.broker.task;
 
 import io.fluxion.server.core.schedule.ScheduleDelay;
-import io.fluxion.server.core.schedule.ScheduleDelayConstants;
 import io.fluxion.server.core.schedule.cmd.ScheduleDelaysLoadCmd;
 import io.fluxion.server.core.schedule.query.ScheduleDelayNextTriggerQuery;
 import io.fluxion.server.infrastructure.cqrs.Cmd;
@@ -26,37 +25,73 @@ import io.fluxion.server.infrastructure.schedule.ScheduleType;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * 按 bucket 加载延迟任务
+ * 每轮从头按 (triggerAt, delayId) 分页拉取窗口内 INIT 状态的 delay，不跨轮保留位置。
+ * 其它节点创建、FIXED_DELAY 反馈、调度重新启用等插入的 delay 即使 triggerAt 较早也会在下一轮加载，
+ * 重复加载由调度去重及状态抢占保证只触发一次。
+ *
  * @author Devil
  */
 @Slf4j
-public class ScheduleDelayLoader extends CoreTask {
+public class ScheduleDelayLoader extends BucketCoreTask {
+
+    private static final int LIMIT = 100;
 
-    public ScheduleDelayLoader() {
-        super(0, ScheduleDelayConstants.LOAD_INTERVAL, ScheduleDelayConstants.LOAD_TIME_UNIT);
+    /**
+     * @param intervalSeconds 加载间隔 秒
+     */
+    public ScheduleDelayLoader(int intervalSeconds) {
+        super(0, intervalSeconds, TimeUnit.SECONDS);
     }
 
     @Override
     public void run() {
         try {
-            String lastId = "";
-            List<ScheduleDelay> delays = Query.query(new ScheduleDelayNextTriggerQuery(100, lastId)).getDelays();
-            while (CollectionUtils.isNotEmpty(delays)) {
-                Cmd.send(new ScheduleDelaysLoadCmd(delays));
-                // 拉取后续的
-                lastId = delays.get(delays.size() - 1).getDelayId();
-                delays = Query.query(new ScheduleDelayNextTriggerQuery(100, lastId)).getDelays();
-            }
+            dispatch(ownedBuckets(), this::load);
         } catch (Exception e) {
             log.error("[{}] execute fail", this.getClass().getSimpleName(), e);
         }
+    }
 
+    /**
+     * 接管前预加载 bucket 的延迟任务到时间轮，触发时仍会校验归属
+     */
+    public void preload(int bucket) {
+        load(bucket);
+    }
+
+    private void load(int bucket) {
+        List<ScheduleDelay> delays = next(bucket, null, "");
+        while (CollectionUtils.isNotEmpty(delays)) {
+            fire(delays);
+            // 拉取后续的
+            ScheduleDelay last = delays.get(delays.size() - 1);
+            delays = next(bucket, last.getId().getTriggerAt(), last.getDelayId());
+        }
+    }
+
+    /**
+     * 拉取位置之后的 delay
+     */
+    protected List<ScheduleDelay> next(int bucket, LocalDateTime lastTriggerAt, String lastDelayId) {
+        return Query.query(new ScheduleDelayNextTriggerQuery(LIMIT, bucket, lastTriggerAt, lastDelayId)).getDelays();
+    }
+
+    /**
+     * 放入时间轮
+     */
+    protected void fire(List<ScheduleDelay> delays) {
+        Cmd.send(new ScheduleDelaysLoadCmd(delays));
     }
 
     @Override
     public ScheduleType scheduleType() {
         return ScheduleType.FIXED_DELAY;
     }
+
 }
@@ -16,8 +16,8 @@
 
 package io.fluxion.server.core.broker.task;
 
+import io.fluxion.common.utils.time.TimeUtils;
 import io.fluxion.server.core.schedule.Schedule;
-import io.fluxion.server.core.schedule.ScheduleConstants;
 import io.fluxion.server.core.schedule.cmd.ScheduleTriggerCmd;
 import io.fluxion.server.core.schedule.query.ScheduleNextTriggerQuery;
 import io.fluxion.server.infrastructure.cqrs.Cmd;
@@ -26,36 +26,79 @@ import io.fluxion.server.infrastructure.schedule.ScheduleType;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 加载 ScheduledTask 并执行
+ * 每个 bucket 独立按 (nextTriggerAt, scheduleId) 分页，在加载线程池中并行处理
  *
  * @author Devil
  */
 @Slf4j
-public class ScheduleLoader extends CoreTask {
+public class ScheduleLoader extends BucketCoreTask {
 
-    public ScheduleLoader() {
-        super(0, ScheduleConstants.LOAD_INTERVAL, ScheduleConstants.LOAD_TIME_UNIT);
+    private static final int LIMIT = 100;
+
+    private final LoadStats stats = new LoadStats();
+
+    /**
+     * @param intervalSeconds 加载间隔 秒
+     */
+    public ScheduleLoader(int intervalSeconds) {
+        super(0, intervalSeconds, TimeUnit.SECONDS);
     }
 
     @Override
     public void run() {
         try {
-            List<Schedule> schedules = Query.query(new ScheduleNextTriggerQuery(100)).getSchedules();
-            while (CollectionUtils.isNotEmpty(schedules)) {
-                for (Schedule schedule : schedules) {
-                    Cmd.send(new ScheduleTriggerCmd(schedule));
+            long start = TimeUtils.currentTimeMillis();
+            LongAdder scanned = new LongAdder();
+            LongAdder triggered = new LongAdder();
+            dispatch(ownedBuckets(), bucket -> load(bucket, scanned, triggered)).whenComplete((v, e) -> {
+                stats.record(scanned.sum(), triggered.sum(), TimeUtils.currentTimeMillis() - start);
+                if (log.isDebugEnabled()) {
+                    log.debug("[{}] scanned:{} triggered:{}", this.getClass().getSimpleName(), scanned.sum(), triggered.sum());
                 }
-                // 拉取后续的
-                schedules = Query.query(new ScheduleNextTriggerQuery(100)).getSchedules();
-            }
+            });
         } catch (Exception e) {
             log.error("[{}] execute fail", this.getClass().getSimpleName(), e);
         }
     }
 
+    private void load(int bucket, LongAdder scanned, LongAdder triggered) {
+        LocalDateTime lastNextTriggerAt = null;
+        String lastScheduleId = null;
+        List<Schedule> schedules = Query.query(new ScheduleNextTriggerQuery(LIMIT, bucket, lastNextTriggerAt, lastScheduleId)).getSchedules();
+        while (CollectionUtils.isNotEmpty(schedules)) {
+            scanned.add(schedules.size());
+            for (Schedule schedule : schedules) {
+                try {
+                    if (Cmd.send(new ScheduleTriggerCmd(schedule)).isTriggered()) {
+                        triggered.increment();
+                    }
+                } catch (Exception e) {
+                    // 单个失败不影响后续，游标会越过它
+                    log.error("[{}] trigger fail scheduleId:{}", this.getClass().getSimpleName(), schedule.getId(), e);
+                }
+            }
+            // 拉取后续的
+            Schedule last = schedules.get(schedules.size() - 1);
+            lastNextTriggerAt = last.getNextTriggerAt();
+            lastScheduleId = last.getId();
+            schedules = Query.query(new ScheduleNextTriggerQuery(LIMIT, bucket, lastNextTriggerAt, lastScheduleId)).getSchedules();
+        }
+    }
+
+    /**
+     * 最近一次及累计的扫描/触发数量
+     */
+    public LoadStats stats() {
+        return stats;
+    }
+
     @Override
     public ScheduleType scheduleType() {
         return ScheduleType.FIXED_RATE;
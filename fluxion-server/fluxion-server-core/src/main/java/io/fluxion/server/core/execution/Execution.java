@@ -18,12 +18,17 @@ package io.fluxion.server.core.execution;
 
 import io.fluxion.server.core.context.RunContext;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * 执行记录
  *
  * @author Devil
  */
+@Slf4j
 @Getter
 public class Execution {
 
@@ -44,4 +49,15 @@ public class Execution {
         executable.execute(runContext);
     }
 
+    /**
+     * 在 executor 中执行，调用线程不阻塞
+     */
+    public CompletableFuture<Void> executeAsync(Executor executor) {
+        return CompletableFuture.runAsync(this::execute, executor).whenComplete((v, e) -> {
+            if (e != null) {
+                log.error("Execution execute fail id:{}", id, e);
+            }
+        });
+    }
+
 }
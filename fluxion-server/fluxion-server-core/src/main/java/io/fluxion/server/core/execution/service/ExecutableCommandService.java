@@ -16,21 +16,21 @@
 
 package io.fluxion.server.core.execution.service;
 
-import io.fluxion.server.core.execution.Execution;
 import io.fluxion.server.core.execution.cmd.ExecutableFailCmd;
 import io.fluxion.server.core.execution.cmd.ExecutableSuccessCmd;
 import io.fluxion.server.core.job.Job;
 import io.fluxion.server.core.job.query.JobByIdQuery;
 import io.fluxion.server.infrastructure.cqrs.Query;
+import io.fluxion.server.infrastructure.dao.repository.ExecutionEntityRepo;
 import io.fluxion.server.infrastructure.dao.tx.TransactionService;
 import io.fluxion.server.infrastructure.exception.ErrorCode;
 import io.fluxion.server.infrastructure.exception.PlatformException;
-import io.fluxion.server.infrastructure.lock.DistributedLock;
 import lombok.extern.slf4j.Slf4j;
 import org.axonframework.commandhandling.CommandHandler;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
+import java.util.function.Supplier;
 
 /**
  * @author Devil
@@ -40,13 +40,11 @@ import javax.annotation.Resource;
 public class ExecutableCommandService {
 
     @Resource
-    private DistributedLock distributedLock;
+    private ExecutionEntityRepo executionEntityRepo;
 
     @Resource
     private TransactionService transactionService;
 
-    private static final String LOCK_SUFFIX = "_Execution_Lock";
-
     @CommandHandler
     public boolean handle(ExecutableSuccessCmd cmd) {
         Job job = Query.query(new JobByIdQuery(cmd.getJobId())).getJob();
@@ -56,10 +54,7 @@ public class ExecutableCommandService {
         job.setTaskMonitor(cmd.getMonitor());
         job.setResult(cmd.getResult());
 
-        String lockName = job.getExecution().getId() + LOCK_SUFFIX;
-        return distributedLock.lock(lockName, 2000, 3000,
-            () -> transactionService.transactional(() -> job.success(cmd.getReportAt()))
-        );
+        return transition(job.getExecution().getId(), () -> job.success(cmd.getReportAt()));
     }
 
     @CommandHandler
@@ -71,16 +66,26 @@ public class ExecutableCommandService {
         job.setTaskMonitor(cmd.getMonitor());
         job.setErrorMsg(cmd.getErrorMsg());
 
-        Execution execution = job.getExecution();
-        String lockName = execution.getId() + LOCK_SUFFIX;
         try {
-            return distributedLock.lock(lockName, 2000, 3000,
-                () -> transactionService.transactional(() -> job.fail(cmd.getReportAt()))
-            );
+            return transition(job.getExecution().getId(), () -> job.fail(cmd.getReportAt()));
         } catch (Exception e) {
             log.error("ExecutableFailCmd fail jobId:{}", cmd.getJobId(), e);
             return false;
         }
     }
 
+    /**
+     * 同一个 execution 下的状态变更串行生效
+     * 事务的第一条语句递增 execution 版本并持有行锁，并发的变更在此排队，
+     * 之后的读取都能看到已提交的兄弟节点状态，保证兄弟节点同时完成时后续节点恰好下发一次
+     */
+    private boolean transition(String executionId, Supplier<Boolean> action) {
+        return transactionService.transactional(() -> {
+            if (executionEntityRepo.lockVersion(executionId) <= 0) {
+                throw new PlatformException(ErrorCode.PARAM_ERROR, "execution not found id:" + executionId);
+            }
+            return action.get();
+        });
+    }
+
 }
@@ -16,24 +16,42 @@
 
 package io.fluxion.server.core.execution.service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import io.fluxion.server.core.execution.Executable;
 import io.fluxion.server.core.execution.ExecuteConfig;
 import io.fluxion.server.core.execution.config.ExecutorExecuteConfig;
 import io.fluxion.server.core.execution.query.ExecutableByIdQuery;
 import io.fluxion.server.core.executor.Executor;
 import io.fluxion.server.core.trigger.Trigger;
+import io.fluxion.server.core.trigger.TriggerConfig;
+import io.fluxion.server.core.trigger.converter.TriggerEntityConverter;
 import io.fluxion.server.core.trigger.query.TriggerByIdQuery;
 import io.fluxion.server.core.workflow.query.WorkflowByIdQuery;
+import io.fluxion.server.infrastructure.cqrs.DirectDispatch;
 import io.fluxion.server.infrastructure.cqrs.Query;
+import io.fluxion.server.infrastructure.version.model.Version;
 import org.axonframework.queryhandling.QueryHandler;
 import org.springframework.stereotype.Service;
 
 /**
  * @author Devil
  */
+@DirectDispatch
 @Service
 public class ExecutableQueryService {
 
+    private static final int EXECUTOR_CACHE_SIZE = 10000;
+
+    /**
+     * 版本 -> Executor
+     */
+    private static final Cache<Version.ID, CachedExecutor> EXECUTOR_CACHE = CacheBuilder.newBuilder()
+        .maximumSize(EXECUTOR_CACHE_SIZE)
+        .recordStats()
+        .build();
+
     @QueryHandler
     public ExecutableByIdQuery.Response handle(ExecutableByIdQuery query) {
         Executable executable = null;
@@ -43,16 +61,49 @@ public class ExecutableQueryService {
                 break;
             case EXECUTOR:
                 Trigger trigger = Query.query(new TriggerByIdQuery(query.getId(), query.getVersion())).getTrigger();
-                ExecuteConfig executeConfig = trigger.getConfig().getExecuteConfig();
-                ExecutorExecuteConfig executorExecuteConfig = (ExecutorExecuteConfig) executeConfig;
-                executable = Executor.of(
-                    trigger.getId(), trigger.getVersion(),
-                    executorExecuteConfig.getExecutor(), executorExecuteConfig.getRetryOption(),
-                    executorExecuteConfig.getOvertimeOption()
-                );
+                executable = executor(trigger);
                 break;
         }
         return new ExecutableByIdQuery.Response(executable);
     }
 
+    /**
+     * 配置来自缓存时复用 Executor，配置对象不同说明不是同一份（如草稿），重新创建
+     */
+    private Executor executor(Trigger trigger) {
+        Version.ID versionId = TriggerEntityConverter.versionId(trigger.getId(), trigger.getVersion());
+        CachedExecutor cached = EXECUTOR_CACHE.getIfPresent(versionId);
+        if (cached != null && cached.config == trigger.getConfig()) {
+            return cached.executor;
+        }
+        ExecuteConfig executeConfig = trigger.getConfig().getExecuteConfig();
+        ExecutorExecuteConfig executorExecuteConfig = (ExecutorExecuteConfig) executeConfig;
+        Executor executor = Executor.of(
+            trigger.getId(), trigger.getVersion(),
+            executorExecuteConfig.getExecutor(), executorExecuteConfig.getRetryOption(),
+            executorExecuteConfig.getOvertimeOption()
+        );
+        EXECUTOR_CACHE.put(versionId, new CachedExecutor(trigger.getConfig(), executor));
+        return executor;
+    }
+
+    /**
+     * 缓存命中/未命中/淘汰统计
+     */
+    public static CacheStats executorCacheStats() {
+        return EXECUTOR_CACHE.stats();
+    }
+
+    private static class CachedExecutor {
+
+        private final TriggerConfig config;
+
+        private final Executor executor;
+
+        CachedExecutor(TriggerConfig config, Executor executor) {
+            this.config = config;
+            this.executor = executor;
+        }
+    }
+
 }
@@ -24,6 +24,7 @@ import io.fluxion.server.core.execution.cmd.ExecutionCreateCmd;
 import io.fluxion.server.core.execution.cmd.ExecutionFailCmd;
 import io.fluxion.server.core.execution.cmd.ExecutionRunningCmd;
 import io.fluxion.server.core.execution.cmd.ExecutionSuccessCmd;
+import io.fluxion.server.core.execution.cmd.ExecutionsCreateCmd;
 import io.fluxion.server.core.schedule.Schedule;
 import io.fluxion.server.core.schedule.cmd.ScheduleFeedbackCmd;
 import io.fluxion.server.core.schedule.query.ScheduleByIdQuery;
@@ -33,8 +34,10 @@ import io.fluxion.server.infrastructure.cqrs.Query;
 import io.fluxion.server.infrastructure.dao.entity.ExecutionEntity;
 import io.fluxion.server.infrastructure.dao.repository.ExecutionEntityRepo;
 import io.fluxion.server.infrastructure.id.cmd.IDGenerateCmd;
+import io.fluxion.server.infrastructure.id.cmd.IDRangeGenerateCmd;
 import io.fluxion.server.infrastructure.id.data.IDType;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
 import org.axonframework.commandhandling.CommandHandler;
 import org.springframework.stereotype.Service;
 
@@ -42,6 +45,12 @@ import javax.annotation.Resource;
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * @author Devil
@@ -63,26 +72,81 @@ public class ExecutionCommandService {
         // 判断是否已经创建
         ExecutionEntity entity = executionEntityRepo.findByExecutableIdAndExecutableTypeAndTriggerAt(executable.id(), executable.type().value, cmd.getTriggerAt());
         if (entity == null) {
-            entity = new ExecutionEntity();
-            entity.setExecutionId(Cmd.send(new IDGenerateCmd(IDType.EXECUTION)).getId());
-            entity.setTriggerId(cmd.getTriggerId());
-            entity.setTriggerType(cmd.getTriggerType().value);
-            entity.setExecutableId(executable.id());
-            entity.setExecutableVersion(executable.version());
-            entity.setExecutableType(executable.type().value);
-            entity.setTriggerAt(cmd.getTriggerAt());
-            entity.setStatus(ExecutionStatus.INITED.value);
+            entity = newEntity(cmd, Cmd.send(new IDGenerateCmd(IDType.EXECUTION)).getId());
             executionEntityRepo.saveAndFlush(entity);
         }
         Execution execution = new Execution(entity.getExecutionId(), executable, ExecutionStatus.parse(entity.getStatus()));
         return new ExecutionCreateCmd.Response(execution);
     }
 
+    /**
+     * 批量创建 已经创建的直接返回 避免重试时重复创建
+     */
+    @Transactional
+    @CommandHandler
+    public ExecutionsCreateCmd.Response handle(ExecutionsCreateCmd cmd) {
+        List<Execution> executions = new ArrayList<>();
+        if (CollectionUtils.isEmpty(cmd.getCmds())) {
+            return new ExecutionsCreateCmd.Response(executions);
+        }
+        // 判断是否已经创建
+        Map<String, ExecutionEntity> exists = new HashMap<>();
+        List<ExecutionEntity> existEntities = executionEntityRepo.findByExecutableIdInAndTriggerAtIn(
+            cmd.getCmds().stream().map(c -> c.getExecutable().id()).collect(Collectors.toSet()),
+            cmd.getCmds().stream().map(ExecutionCreateCmd::getTriggerAt).collect(Collectors.toSet())
+        );
+        for (ExecutionEntity entity : existEntities) {
+            exists.put(executionKey(entity.getExecutableId(), entity.getExecutableType(), entity.getTriggerAt()), entity);
+        }
+        List<ExecutionCreateCmd> createCmds = new ArrayList<>();
+        for (ExecutionCreateCmd createCmd : cmd.getCmds()) {
+            Executable executable = createCmd.getExecutable();
+            if (!exists.containsKey(executionKey(executable.id(), executable.type().value, createCmd.getTriggerAt()))) {
+                createCmds.add(createCmd);
+            }
+        }
+        List<String> ids = createCmds.isEmpty() ? Collections.emptyList()
+            : Cmd.send(new IDRangeGenerateCmd(IDType.EXECUTION, createCmds.size())).ids();
+        for (int i = 0; i < createCmds.size(); i++) {
+            ExecutionCreateCmd createCmd = createCmds.get(i);
+            ExecutionEntity entity = newEntity(createCmd, ids.get(i));
+            // 直接 persist 避免 merge 时逐条 select，flush 时依赖 hibernate.jdbc.batch_size 合并为批量写入
+            entityManager.persist(entity);
+            Executable executable = createCmd.getExecutable();
+            exists.put(executionKey(executable.id(), executable.type().value, createCmd.getTriggerAt()), entity);
+        }
+        entityManager.flush();
+        for (ExecutionCreateCmd createCmd : cmd.getCmds()) {
+            Executable executable = createCmd.getExecutable();
+            ExecutionEntity entity = exists.get(executionKey(executable.id(), executable.type().value, createCmd.getTriggerAt()));
+            executions.add(new Execution(entity.getExecutionId(), executable, ExecutionStatus.parse(entity.getStatus())));
+        }
+        return new ExecutionsCreateCmd.Response(executions);
+    }
+
+    private String executionKey(String executableId, String executableType, LocalDateTime triggerAt) {
+        return executableId + "_" + executableType + "_" + triggerAt;
+    }
+
+    private ExecutionEntity newEntity(ExecutionCreateCmd cmd, String executionId) {
+        Executable executable = cmd.getExecutable();
+        ExecutionEntity entity = new ExecutionEntity();
+        entity.setExecutionId(executionId);
+        entity.setTriggerId(cmd.getTriggerId());
+        entity.setTriggerType(cmd.getTriggerType().value);
+        entity.setExecutableId(executable.id());
+        entity.setExecutableVersion(executable.version());
+        entity.setExecutableType(executable.type().value);
+        entity.setTriggerAt(cmd.getTriggerAt());
+        entity.setStatus(ExecutionStatus.INITED.value);
+        return entity;
+    }
+
     @Transactional
     @CommandHandler
     public void handle(ExecutionRunningCmd cmd) {
         entityManager.createQuery("update ExecutionEntity " +
-                "set status = :newStatus, startAt = :startAt " +
+                "set status = :newStatus, version = version + 1, startAt = :startAt " +
                 "where executionId = :executionId and status = :oldStatus"
             )
             .setParameter("newStatus", ExecutionStatus.RUNNING.value)
@@ -118,7 +182,7 @@ public class ExecutionCommandService {
 
     private boolean updateToFinish(String executionId, ExecutionStatus status, LocalDateTime endTime) {
         return entityManager.createQuery("update ExecutionEntity " +
-                "set status = :newStatus, endAt = :endAt " +
+                "set status = :newStatus, version = version + 1, endAt = :endAt " +
                 "where executionId = :executionId and status = :oldStatus "
             )
             .setParameter("endAt", endTime)
@@ -22,6 +22,7 @@ import io.fluxion.server.core.execution.Execution;
 import io.fluxion.server.core.execution.ExecutionStatus;
 import io.fluxion.server.core.execution.query.ExecutableByIdQuery;
 import io.fluxion.server.core.execution.query.ExecutionByIdQuery;
+import io.fluxion.server.infrastructure.cqrs.DirectDispatch;
 import io.fluxion.server.infrastructure.cqrs.Query;
 import io.fluxion.server.infrastructure.dao.entity.ExecutionEntity;
 import io.fluxion.server.infrastructure.dao.repository.ExecutionEntityRepo;
@@ -33,6 +34,7 @@ import javax.annotation.Resource;
 /**
  * @author Devil
  */
+@DirectDispatch
 @Service
 public class ExecutionQueryService {
 
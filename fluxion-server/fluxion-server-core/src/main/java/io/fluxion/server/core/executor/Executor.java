@@ -16,8 +16,8 @@
 
 package io.fluxion.server.core.executor;
 
-import io.fluxion.common.thread.CommonThreadPool;
 import io.fluxion.common.utils.time.TimeUtils;
+import io.fluxion.server.core.broker.BrokerContext;
 import io.fluxion.server.core.context.RunContext;
 import io.fluxion.server.core.execution.Executable;
 import io.fluxion.server.core.execution.ExecutableType;
@@ -30,8 +30,8 @@ import io.fluxion.server.core.job.ExecutorJob;
 import io.fluxion.server.core.job.Job;
 import io.fluxion.server.core.job.cmd.JobRunCmd;
 import io.fluxion.server.core.job.cmd.JobsCreateCmd;
-import io.fluxion.server.infrastructure.concurrent.LoggingTask;
 import io.fluxion.server.infrastructure.cqrs.Cmd;
+import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -39,6 +39,7 @@ import java.util.Collections;
 /**
  * @author Devil
  */
+@Slf4j
 public class Executor implements Executable {
 
     private String id;
@@ -95,7 +96,11 @@ public class Executor implements Executable {
         // 保存数据
         Cmd.send(new JobsCreateCmd(Collections.singletonList(job)));
         // 执行
-        CommonThreadPool.IO.submit(new LoggingTask(() -> Cmd.send(new JobRunCmd(job))));
+        Cmd.asyncSend(new JobRunCmd(job), BrokerContext.broker().pipelineExecutor()).whenComplete((v, e) -> {
+            if (e != null) {
+                log.error("JobRunCmd fail jobId:{}", job.getJobId(), e);
+            }
+        });
     }
 
     @Override
@@ -19,6 +19,7 @@ package io.fluxion.server.core.job.service;
 import com.google.common.collect.Lists;
 import io.fluxion.common.utils.json.JacksonUtils;
 import io.fluxion.remote.core.constants.JobStatus;
+import io.fluxion.server.core.broker.BrokerContext;
 import io.fluxion.server.core.execution.cmd.ExecutableFailCmd;
 import io.fluxion.server.core.execution.cmd.ExecutableSuccessCmd;
 import io.fluxion.server.core.execution.cmd.ExecutionRunningCmd;
@@ -26,21 +27,25 @@ import io.fluxion.server.core.job.Job;
 import io.fluxion.server.core.job.TaskMonitor;
 import io.fluxion.server.core.job.cmd.JobFailCmd;
 import io.fluxion.server.core.job.cmd.JobReportCmd;
+import io.fluxion.server.core.job.cmd.JobReportFlushCmd;
 import io.fluxion.server.core.job.cmd.JobRunCmd;
 import io.fluxion.server.core.job.cmd.JobStateTransitionCmd;
 import io.fluxion.server.core.job.cmd.JobSuccessCmd;
 import io.fluxion.server.core.job.cmd.JobsCreateCmd;
 import io.fluxion.server.core.job.runner.JobRunner;
 import io.fluxion.server.infrastructure.cqrs.Cmd;
+import io.fluxion.server.infrastructure.cqrs.DirectDispatch;
+import io.fluxion.server.infrastructure.dao.TableConstants;
 import io.fluxion.server.infrastructure.dao.entity.JobEntity;
 import io.fluxion.server.infrastructure.dao.repository.JobEntityRepo;
 import io.fluxion.server.infrastructure.dao.tx.TransactionService;
-import io.fluxion.server.infrastructure.id.cmd.IDGenerateCmd;
+import io.fluxion.server.infrastructure.id.cmd.IDRangeGenerateCmd;
 import io.fluxion.server.infrastructure.id.data.IDType;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.axonframework.commandhandling.CommandHandler;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.Resource;
@@ -48,12 +53,14 @@ import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * @author Devil
  */
+@DirectDispatch
 @Slf4j
 @Component
 public class JobCommandService {
@@ -70,24 +77,48 @@ public class JobCommandService {
     @Resource
     private TransactionService transactionService;
 
+    @Resource
+    private JobReportBuffer jobReportBuffer;
+
+    @Resource
+    private JdbcTemplate jdbcTemplate;
+
+    private static final String FLUSH_REPORT_SQL = "update " + TableConstants.FLUXION_JOB +
+        " set last_report_at = ?, monitor = ?, worker_address = ?" +
+        " where job_id = ? and status = ? and (last_report_at is null or last_report_at <= ?)";
+
     @Transactional
     @CommandHandler
     public void handle(JobsCreateCmd cmd) {
+        if (CollectionUtils.isEmpty(cmd.getJobs())) {
+            return;
+        }
+        // 一次查询已经创建的任务
+        Set<String> executionIds = new HashSet<>();
+        Set<String> refIds = new HashSet<>();
+        for (Job job : cmd.getJobs()) {
+            executionIds.add(job.getExecution().getId());
+            refIds.add(job.getRefId());
+        }
+        Set<String> existKeys = new HashSet<>();
+        for (Object[] key : jobEntityRepo.findKeys(executionIds, refIds)) {
+            existKeys.add(jobKey((String) key[0], (String) key[1], (String) key[2]));
+        }
         List<Job> jobs = new ArrayList<>();
         for (Job job : cmd.getJobs()) {
-            // 判断是否已经创建
-            JobEntity entity = jobEntityRepo.findByExecutionIdAndRefIdAndJobType(job.getExecution().getId(), job.getRefId(), job.type().value);
-            if (entity == null) {
+            if (existKeys.add(jobKey(job.getExecution().getId(), job.getRefId(), job.type().value))) {
                 jobs.add(job);
             }
         }
         if (CollectionUtils.isEmpty(jobs)) {
             return;
         }
-        List<JobEntity> entities = jobs.stream().peek(job -> {
-            String id = Cmd.send(new IDGenerateCmd(IDType.JOB)).getId();
-            job.setJobId(id);
-        }).map(job -> {
+        // 一次获取所需的全部 ID
+        List<String> ids = Cmd.send(new IDRangeGenerateCmd(IDType.JOB, jobs.size())).ids();
+        for (int i = 0; i < jobs.size(); i++) {
+            jobs.get(i).setJobId(ids.get(i));
+        }
+        for (Job job : jobs) {
             JobEntity entity = new JobEntity();
             entity.setJobId(job.getJobId());
             entity.setExecutionId(job.getExecution().getId());
@@ -96,9 +127,14 @@ public class JobCommandService {
             entity.setJobType(job.type().value);
             entity.setRefId(job.getRefId());
             entity.setRetryTimes(job.getRetryTimes());
-            return entity;
-        }).collect(Collectors.toList());
-        jobEntityRepo.saveAllAndFlush(entities);
+            // ID 已分配 persist 后统一 flush 批量写入，并发重复创建由 uk_job_execution 拦截
+            entityManager.persist(entity);
+        }
+        entityManager.flush();
+    }
+
+    private String jobKey(String executionId, String refId, String jobType) {
+        return executionId + ":" + refId + ":" + jobType;
     }
 
     @CommandHandler
@@ -115,10 +151,41 @@ public class JobCommandService {
     @CommandHandler
     public JobReportCmd.Response handle(JobReportCmd cmd) {
         String workerAddress = cmd.getWorkerNode().address();
+        if (BrokerContext.broker().config().getJobReportFlushMillis() > 0) {
+            // 只更新存活信息，缓冲后批量写入
+            jobReportBuffer.offer(new JobReportBuffer.Report(
+                cmd.getJobId(), cmd.getStatus(), workerAddress, cmd.getMonitor(), cmd.getReportAt()
+            ));
+            return new JobReportCmd.Response(true);
+        }
         boolean success = report(cmd.getJobId(), cmd.getStatus(), workerAddress, cmd.getMonitor(), cmd.getReportAt());
         return new JobReportCmd.Response(success);
     }
 
+    @CommandHandler
+    public void handle(JobReportFlushCmd cmd) {
+        List<JobReportBuffer.Report> reports = jobReportBuffer.drain();
+        if (reports.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        List<Object[]> args = new ArrayList<>(reports.size());
+        for (JobReportBuffer.Report report : reports) {
+            args.add(new Object[]{
+                report.getReportAt(), JacksonUtils.toJSONString(report.getMonitor()), report.getWorkerAddress(),
+                report.getJobId(), report.getStatus().value, report.getReportAt()
+            });
+        }
+        try {
+            transactionService.transactional(() -> jdbcTemplate.batchUpdate(FLUSH_REPORT_SQL, args));
+        } catch (RuntimeException e) {
+            // 放回缓冲 下次重试
+            jobReportBuffer.requeue(reports);
+            throw e;
+        }
+        jobReportBuffer.recordFlush(reports.size(), System.currentTimeMillis() - start);
+    }
+
     @CommandHandler
     public JobStateTransitionCmd.Response handle(JobStateTransitionCmd cmd) {
         JobEntity entity = jobEntityRepo.findById(cmd.getJobId()).orElse(null);
@@ -159,7 +226,7 @@ public class JobCommandService {
     private boolean dispatched(JobEntity entity, String workerAddress, LocalDateTime reportAt) {
         return transactionService.transactional(() -> {
             int updated = entityManager.createQuery("update JobEntity " +
-                    "set status = :newStatus, startAt = :lastReportAt, lastReportAt = :lastReportAt, workerAddress = :workerAddress " +
+                    "set status = :newStatus, version = version + 1, startAt = :lastReportAt, lastReportAt = :lastReportAt, workerAddress = :workerAddress " +
                     "where jobId = :jobId and status = :oldStatuses"
                 )
                 .setParameter("lastReportAt", reportAt)
@@ -187,7 +254,7 @@ public class JobCommandService {
                 )
                 .setParameter("lastReportAt", reportAt)
                 .setParameter("jobId", jobId)
-                .setParameter("status", status)
+                .setParameter("status", status.value)
                 .setParameter("monitor", JacksonUtils.toJSONString(monitor))
                 .setParameter("workerAddress", workerAddress)
                 .executeUpdate();
@@ -198,7 +265,7 @@ public class JobCommandService {
     private boolean start(JobEntity entity, String workerAddress, LocalDateTime reportAt) {
         return transactionService.transactional(() -> {
             int updated = entityManager.createQuery("update JobEntity " +
-                    "set status = :newStatus, startAt = :lastReportAt, lastReportAt = :lastReportAt, workerAddress = :workerAddress " +
+                    "set status = :newStatus, version = version + 1, startAt = :lastReportAt, lastReportAt = :lastReportAt, workerAddress = :workerAddress " +
                     "where jobId = :jobId and status in :oldStatuses"
                 )
                 .setParameter("lastReportAt", reportAt)
@@ -222,13 +289,15 @@ public class JobCommandService {
     @Transactional
     @CommandHandler
     public boolean handle(JobSuccessCmd cmd) {
+        // 终态直接写入，缓冲中的上报不再需要
+        jobReportBuffer.discard(cmd.getJobId());
         JobEntity entity = jobEntityRepo.findById(cmd.getJobId()).orElse(null);
         if (entity == null) {
             log.warn("JobSuccessCmd not found jobId:{}", cmd.getJobId());
             return false;
         }
         int updated = entityManager.createQuery("update JobEntity " +
-                "set lastReportAt = :lastReportAt, status = :newStatus, startAt = :startAt, endAt = :endAt, monitor = :monitor " +
+                "set lastReportAt = :lastReportAt, status = :newStatus, version = version + 1, startAt = :startAt, endAt = :endAt, monitor = :monitor " +
                 "where jobId = :jobId and status = :oldStatus "
             )
             .setParameter("lastReportAt", cmd.getReportAt())
@@ -249,13 +318,15 @@ public class JobCommandService {
     @Transactional
     @CommandHandler
     public boolean handle(JobFailCmd cmd) {
+        // 终态直接写入，缓冲中的上报不再需要
+        jobReportBuffer.discard(cmd.getJobId());
         JobEntity entity = jobEntityRepo.findById(cmd.getJobId()).orElse(null);
         if (entity == null) {
             log.warn("JobFailCmd not found jobId:{}", cmd.getJobId());
             return false;
         }
         int updated = entityManager.createQuery("update JobEntity " +
-                "set lastReportAt = :lastReportAt, status = :newStatus, startAt = :startAt, endAt = :endAt," +
+                "set lastReportAt = :lastReportAt, status = :newStatus, version = version + 1, startAt = :startAt, endAt = :endAt," +
                 " errorMsg = :errorMsg, monitor =:monitor " +
                 "where jobId = :jobId and status in :oldStatus "
             )
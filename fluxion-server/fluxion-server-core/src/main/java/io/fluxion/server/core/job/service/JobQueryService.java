@@ -24,6 +24,7 @@ import io.fluxion.server.core.job.Job;
 import io.fluxion.server.core.job.TaskMonitor;
 import io.fluxion.server.core.job.query.JobByIdQuery;
 import io.fluxion.server.core.job.query.JobCountByStatusQuery;
+import io.fluxion.server.infrastructure.cqrs.DirectDispatch;
 import io.fluxion.server.infrastructure.cqrs.Query;
 import io.fluxion.server.infrastructure.dao.entity.JobEntity;
 import io.fluxion.server.infrastructure.dao.repository.JobEntityRepo;
@@ -36,12 +37,16 @@ import java.util.stream.Collectors;
 /**
  * @author Devil
  */
+@DirectDispatch
 @Service
 public class JobQueryService {
 
     @Resource
     private JobEntityRepo jobEntityRepo;
 
+    @Resource
+    private JobReportBuffer jobReportBuffer;
+
     @QueryHandler
     public JobCountByStatusQuery.Response handle(JobCountByStatusQuery query) {
         long count = jobEntityRepo.countByExecutionIdAndRefIdInAndStatusIn(
@@ -63,7 +68,13 @@ public class JobQueryService {
         job.setExecution(execution);
         job.setTriggerAt(entity.getTriggerAt());
         job.setRetryTimes(entity.getRetryTimes());
-        job.setTaskMonitor(JacksonUtils.toType(entity.getMonitor(), TaskMonitor.class));
+        JobReportBuffer.Report report = jobReportBuffer.latest(entity.getJobId());
+        if (report != null && report.getMonitor() != null) {
+            // 缓冲中尚未写库的上报更新
+            job.setTaskMonitor(report.getMonitor());
+        } else {
+            job.setTaskMonitor(JacksonUtils.toType(entity.getMonitor(), TaskMonitor.class));
+        }
         job.setErrorMsg(entity.getErrorMsg());
         job.setResult(entity.getResult());
         return new JobByIdQuery.Response(job);
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.server.core.job.service;
+
+import io.fluxion.remote.core.constants.JobStatus;
+import io.fluxion.server.core.job.TaskMonitor;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 任务进度上报缓冲
+ * 每个任务只保留最新一次上报，定时批量写库，终态变更时丢弃
+ *
+ * @author Devil
+ */
+@Component
+public class JobReportBuffer {
+
+    private final Map<String, Report> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder offered = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder flushed = new LongAdder();
+
+    private volatile long lastFlushCostMs;
+
+    public void offer(Report report) {
+        offered.increment();
+        pending.merge(report.getJobId(), report, (old, now) -> {
+            coalesced.increment();
+            // 乱序到达时保留较新的
+            return now.getReportAt().isBefore(old.getReportAt()) ? old : now;
+        });
+    }
+
+    /**
+     * 尚未写库的最新上报
+     */
+    public Report latest(String jobId) {
+        return pending.get(jobId);
+    }
+
+    public void discard(String jobId) {
+        pending.remove(jobId);
+    }
+
+    /**
+     * 写库失败时放回 期间到达的较新上报优先，不计入接收数
+     */
+    public void requeue(List<Report> reports) {
+        for (Report report : reports) {
+            pending.merge(report.getJobId(), report, (current, failed) -> failed.getReportAt().isAfter(current.getReportAt()) ? failed : current);
+        }
+    }
+
+    /**
+     * 取出所有待写入的上报
+     */
+    public List<Report> drain() {
+        List<Report> reports = new ArrayList<>(pending.size());
+        for (Map.Entry<String, Report> entry : pending.entrySet()) {
+            // 取出期间有新的上报则留给下一次
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                reports.add(entry.getValue());
+            }
+        }
+        return reports;
+    }
+
+    void recordFlush(int num, long costMs) {
+        flushed.add(num);
+        lastFlushCostMs = costMs;
+    }
+
+    public int pending() {
+        return pending.size();
+    }
+
+    public long offered() {
+        return offered.sum();
+    }
+
+    /**
+     * 被合并掉的上报数
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    public long flushed() {
+        return flushed.sum();
+    }
+
+    public long lastFlushCostMs() {
+        return lastFlushCostMs;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Report {
+
+        private final String jobId;
+
+        private final JobStatus status;
+
+        private final String workerAddress;
+
+        private final TaskMonitor monitor;
+
+        private final LocalDateTime reportAt;
+
+    }
+
+}
@@ -31,4 +31,9 @@ public interface ScheduleConstants {
 
     long LOAD_INTERVAL_SECONDS = LOAD_TIME_UNIT.toSeconds(LOAD_INTERVAL);
 
+    /**
+     * 单个调度一次最多创建的 ScheduleDelay 数量，剩余的下次加载时继续创建
+     */
+    int LOAD_TRIGGER_LIMIT = 10000;
+
 }
@@ -40,10 +40,19 @@ public class ScheduleDelay {
 
     private Status status;
 
+    /**
+     * 所属分片
+     */
+    private Integer bucket;
+
     public void status(Status status) {
         this.status = status;
     }
 
+    public void bucket(Integer bucket) {
+        this.bucket = bucket;
+    }
+
     public ScheduleDelay(ID id, Status status) {
         this.id = id;
         this.delayId = id.getScheduleId() + "_" + LocalDateTimeUtils.format(id.getTriggerAt(), Formatters.YMD_HMS_SSS);
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.server.core.schedule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 同一 tick 同一 bucket 下需要触发的 delay 集合，触发时一次性处理
+ *
+ * @author Devil
+ */
+public class ScheduleDelayBatch {
+
+    private final String id;
+
+    private final int bucket;
+
+    private final Map<String, ScheduleDelay.ID> delayIds = new LinkedHashMap<>();
+
+    /**
+     * 已经触发 之后不再接收新的 delay
+     */
+    private boolean fired = false;
+
+    public ScheduleDelayBatch(String id, int bucket) {
+        this.id = id;
+        this.bucket = bucket;
+    }
+
+    /**
+     * @return false 表示已经触发 需要放入新的批次
+     */
+    public synchronized boolean add(ScheduleDelay delay) {
+        if (fired) {
+            return false;
+        }
+        delayIds.putIfAbsent(delay.getDelayId(), delay.getId());
+        return true;
+    }
+
+    /**
+     * 标记为已触发 并返回当前所有 delay
+     */
+    public synchronized List<ScheduleDelay.ID> fire() {
+        if (fired) {
+            return Collections.emptyList();
+        }
+        fired = true;
+        return new ArrayList<>(delayIds.values());
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public int bucket() {
+        return bucket;
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.fluxion.server.core.schedule;
+
+import io.fluxion.server.core.broker.BrokerConfig;
+
+/**
+ * 调度预加载时间
+ * 自适应模式下按触发频率计算，每次大约创建 scheduleAdaptiveTriggers 个延迟任务，
+ * 不小于两个加载间隔（下次加载时一定会被选中，不会断档），不超过最大预加载时间。
+ * 最大预加载时间不小于一个加载间隔
+ *
+ * @author Devil
+ */
+public class ScheduleLookAhead {
+
+    /**
+     * 最大预加载时间 秒
+     */
+    public static long maxSeconds(BrokerConfig config) {
+        return Math.max(config.getScheduleLookAheadSeconds(), config.scheduleLoadTickSeconds());
+    }
+
+    /**
+     * @param periodSeconds 触发间隔 秒
+     * @return 预加载时间 秒
+     */
+    public static long seconds(long periodSeconds, BrokerConfig config) {
+        long maxSeconds = maxSeconds(config);
+        if (!config.isScheduleAdaptiveLookAhead()) {
+            return maxSeconds;
+        }
+        long seconds = Math.max(periodSeconds, 1) * config.getScheduleAdaptiveTriggers();
+        seconds = Math.max(seconds, 2L * config.scheduleLoadTickSeconds());
+        return Math.min(seconds, maxSeconds);
+    }
+
+}
@@ -30,8 +30,17 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class ScheduleTriggerCmd implements ICmd<Void> {
+public class ScheduleTriggerCmd implements ICmd<ScheduleTriggerCmd.Response> {
 
     private Schedule schedule;
 
+    @Getter
+    @AllArgsConstructor
+    public static class Response {
+        /**
+         * 是否创建了延迟任务
+         */
+        private boolean triggered;
+    }
+
 }
@@ -33,9 +33,11 @@ public class ScheduleDelayEntityConverter {
         if (entity == null) {
             return null;
         }
-        return new ScheduleDelay(
+        ScheduleDelay delay = new ScheduleDelay(
             convert(entity.getId()), ScheduleDelay.Status.parse(entity.getStatus())
         );
+        delay.bucket(entity.getBucket());
+        return delay;
     }
 
     public static List<ScheduleDelay> convert(List<ScheduleDelayEntity> entities) {
@@ -60,6 +62,7 @@ public class ScheduleDelayEntityConverter {
         entity.setId(convert(delay.getId()));
         entity.setDelayId(delay.getDelayId());
         entity.setStatus(delay.getStatus().value);
+        entity.setBucket(delay.getBucket());
         return entity;
     }
 
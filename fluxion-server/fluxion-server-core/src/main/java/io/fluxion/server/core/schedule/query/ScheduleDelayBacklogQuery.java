@@ -0,0 +1,50 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.fluxion.server.core.schedule.query;
+
+import io.fluxion.server.infrastructure.cqrs.IQuery;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 各 bucket 截止到 triggerAt 仍未触发的延迟任务数
+ *
+ * @author Devil
+ */
+@Getter
+@AllArgsConstructor
+public class ScheduleDelayBacklogQuery implements IQuery<ScheduleDelayBacklogQuery.Response> {
+
+    private List<Integer> buckets;
+
+    private LocalDateTime triggerAt;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Response {
+        /**
+         * bucket -> 数量，没有的 bucket 不返回
+         */
+        private Map<Integer, Integer> backlogs;
+    }
+
+}
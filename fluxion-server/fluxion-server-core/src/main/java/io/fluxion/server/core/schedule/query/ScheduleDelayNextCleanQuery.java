@@ -38,6 +38,16 @@ public class ScheduleDelayNextCleanQuery implements IQuery<ScheduleDelayNextClea
 
     private int limit;
 
+    /**
+     * 为空则查询当前节点所有 bucket
+     */
+    private Integer bucket;
+
+    /**
+     * 上次拉取到的位置 (triggerAt, delayId)，为空则从头开始
+     */
+    private LocalDateTime lastTriggerAt;
+
     private String lastDelayId;
 
     private LocalDateTime endAt;
@@ -23,6 +23,7 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
@@ -37,8 +38,23 @@ public class ScheduleDelayNextTriggerQuery implements IQuery<ScheduleDelayNextTr
 
     private int limit;
 
+    /**
+     * 为空则查询当前节点所有 bucket
+     */
+    private Integer bucket;
+
+    /**
+     * 上次拉取到的位置 (triggerAt, delayId)，为空则从头开始
+     */
+    private LocalDateTime lastTriggerAt;
+
     private String lastDelayId;
 
+    public ScheduleDelayNextTriggerQuery(int limit, String lastDelayId) {
+        this.limit = limit;
+        this.lastDelayId = lastDelayId;
+    }
+
     @Getter
     @NoArgsConstructor
     @AllArgsConstructor
@@ -23,6 +23,7 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
@@ -37,6 +38,22 @@ public class ScheduleNextTriggerQuery implements IQuery<ScheduleNextTriggerQuery
 
     private int limit;
 
+    /**
+     * 为空则查询当前节点所有 bucket
+     */
+    private Integer bucket;
+
+    /**
+     * 上次拉取到的位置 (nextTriggerAt, scheduleId)，为空则从头开始
+     */
+    private LocalDateTime lastNextTriggerAt;
+
+    private String lastScheduleId;
+
+    public ScheduleNextTriggerQuery(int limit) {
+        this.limit = limit;
+    }
+
     @Getter
     @NoArgsConstructor
     @AllArgsConstructor
@@ -18,10 +18,13 @@ package io.fluxion.server.core.schedule.service;
 
 import com.google.common.collect.Lists;
 import io.fluxion.common.utils.time.TimeUtils;
+import io.fluxion.server.core.broker.BrokerConfig;
+import io.fluxion.server.core.broker.BrokerContext;
 import io.fluxion.server.core.broker.cmd.BucketAllotCmd;
 import io.fluxion.server.core.schedule.Schedule;
 import io.fluxion.server.core.schedule.ScheduleConstants;
 import io.fluxion.server.core.schedule.ScheduleDelay;
+import io.fluxion.server.core.schedule.ScheduleLookAhead;
 import io.fluxion.server.core.schedule.cmd.ScheduleDelayDeleteByScheduleCmd;
 import io.fluxion.server.core.schedule.cmd.ScheduleDelaysCreateCmd;
 import io.fluxion.server.core.schedule.cmd.ScheduleDelaysLoadCmd;
@@ -40,6 +43,8 @@ import io.fluxion.server.infrastructure.dao.repository.ScheduleEntityRepo;
 import io.fluxion.server.infrastructure.schedule.BasicCalculation;
 import io.fluxion.server.infrastructure.schedule.ScheduleOption;
 import io.fluxion.server.infrastructure.schedule.ScheduleType;
+import io.fluxion.server.infrastructure.schedule.calculator.ScheduleCalculator;
+import io.fluxion.server.infrastructure.schedule.calculator.ScheduleCalculatorFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.axonframework.commandhandling.CommandHandler;
 import org.springframework.stereotype.Service;
@@ -47,6 +52,7 @@ import org.springframework.stereotype.Service;
 import javax.annotation.Resource;
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -125,10 +131,10 @@ public class ScheduleCommandService {
 
     @Transactional
     @CommandHandler
-    public void handle(ScheduleTriggerCmd cmd) {
+    public ScheduleTriggerCmd.Response handle(ScheduleTriggerCmd cmd) {
         Schedule schedule = cmd.getSchedule();
         if (!schedule.isEnabled()) {
-            return;
+            return new ScheduleTriggerCmd.Response(false);
         }
         LocalDateTime now = TimeUtils.currentLocalDateTime();
         // 创建一批 ScheduleDelay
@@ -140,10 +146,12 @@ public class ScheduleCommandService {
                 lastTriggerAt, lastTriggerAt, schedule.getOption()
             ).triggerAt();
         }
+        BrokerConfig config = BrokerContext.broker().config();
         if (ScheduleType.FIXED_DELAY == schedule.getOption().getType()) {
             // FIXED_DELAY 只创建一个
-            if (!scheduleTriggerCheck(nextTriggerAt, now, schedule.getOption())) {
-                return;
+            LocalDateTime until = now.plusSeconds(ScheduleLookAhead.maxSeconds(config));
+            if (!scheduleTriggerCheck(nextTriggerAt, until, now, schedule.getOption())) {
+                return new ScheduleTriggerCmd.Response(false);
             }
             ScheduleDelay delay = new ScheduleDelay(
                 new ScheduleDelay.ID(schedule.getId(), nextTriggerAt),
@@ -154,18 +162,24 @@ public class ScheduleCommandService {
             lastTriggerAt = nextTriggerAt; // 更新上次触发时间
             nextTriggerAt = null; // 反馈的时候计算下次触发时间，先置空
         } else {
-            // CRON FIXED_RATE 创建后续多个
-            while (scheduleTriggerCheck(nextTriggerAt, now, schedule.getOption())) {
-                ScheduleDelay delay = new ScheduleDelay(
-                    new ScheduleDelay.ID(schedule.getId(), nextTriggerAt),
-                    ScheduleDelay.Status.INIT
-                );
-                delays.add(delay);
-                lastTriggerAt = nextTriggerAt; // 更新上次触发时间
-                BasicCalculation calculation = new BasicCalculation(
-                    lastTriggerAt, lastTriggerAt, schedule.getOption()
-                );
-                nextTriggerAt = calculation.triggerAt();
+            // CRON FIXED_RATE 一次计算出窗口内的所有触发时间
+            ScheduleOption option = schedule.getOption();
+            ScheduleCalculator calculator = ScheduleCalculatorFactory.create(option.getType());
+            LocalDateTime until = lookAheadUntil(calculator, option, nextTriggerAt, now, config);
+            if (scheduleTriggerCheck(nextTriggerAt, until, now, option)) {
+                List<LocalDateTime> triggers = new ArrayList<>();
+                triggers.add(nextTriggerAt);
+                triggers.addAll(calculator.nextTriggers(
+                    option, nextTriggerAt, until, ScheduleConstants.LOAD_TRIGGER_LIMIT - 1
+                ));
+                for (LocalDateTime triggerAt : triggers) {
+                    delays.add(new ScheduleDelay(
+                        new ScheduleDelay.ID(schedule.getId(), triggerAt),
+                        ScheduleDelay.Status.INIT
+                    ));
+                }
+                lastTriggerAt = triggers.get(triggers.size() - 1); // 更新上次触发时间
+                nextTriggerAt = new BasicCalculation(lastTriggerAt, lastTriggerAt, option).triggerAt();
             }
         }
 
@@ -183,15 +197,33 @@ public class ScheduleCommandService {
             .setParameter("nextTriggerAt", nextTriggerAt)
             .setParameter("id", schedule.getId())
             .executeUpdate();
+        return new ScheduleTriggerCmd.Response(!delays.isEmpty());
+    }
+
+    /**
+     * 本次创建 ScheduleDelay 的截止时间
+     */
+    private LocalDateTime lookAheadUntil(ScheduleCalculator calculator, ScheduleOption option,
+                                         LocalDateTime nextTriggerAt, LocalDateTime now, BrokerConfig config) {
+        long maxSeconds = ScheduleLookAhead.maxSeconds(config);
+        if (!config.isScheduleAdaptiveLookAhead()) {
+            return now.plusSeconds(maxSeconds);
+        }
+        List<LocalDateTime> next = calculator.nextTriggers(option, nextTriggerAt, now.plusSeconds(maxSeconds), 1);
+        if (next.isEmpty()) {
+            return now.plusSeconds(maxSeconds);
+        }
+        long periodSeconds = Duration.between(nextTriggerAt, next.get(0)).getSeconds();
+        return now.plusSeconds(ScheduleLookAhead.seconds(periodSeconds, config));
     }
 
-    private boolean scheduleTriggerCheck(LocalDateTime nextTriggerAt, LocalDateTime now, ScheduleOption option) {
+    private boolean scheduleTriggerCheck(LocalDateTime nextTriggerAt, LocalDateTime until, LocalDateTime now, ScheduleOption option) {
         if (nextTriggerAt.isBefore(now)
             || nextTriggerAt.isBefore(option.getStartTime())) {
             return false;
         }
         if (nextTriggerAt.isAfter(option.getEndTime())
-            || nextTriggerAt.isAfter(now.plusSeconds(ScheduleConstants.LOAD_INTERVAL_SECONDS))) {
+            || nextTriggerAt.isAfter(until)) {
             return false;
         }
         return true;
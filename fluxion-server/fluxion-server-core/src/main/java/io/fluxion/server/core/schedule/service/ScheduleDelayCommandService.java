@@ -16,16 +16,20 @@
 
 package io.fluxion.server.core.schedule.service;
 
-import io.fluxion.common.thread.CommonThreadPool;
 import io.fluxion.common.utils.json.JacksonUtils;
+import io.fluxion.common.utils.time.TimeUtils;
+import io.fluxion.server.core.broker.Broker;
 import io.fluxion.server.core.broker.BrokerContext;
 import io.fluxion.server.core.broker.cmd.BucketAllotCmd;
-import io.fluxion.server.core.broker.query.BucketsByBrokerQuery;
+import io.fluxion.server.core.broker.query.BucketOwnedQuery;
+import io.fluxion.server.core.broker.service.BucketLoadStats;
 import io.fluxion.server.core.execution.Executable;
 import io.fluxion.server.core.execution.Execution;
 import io.fluxion.server.core.execution.cmd.ExecutionCreateCmd;
+import io.fluxion.server.core.execution.cmd.ExecutionsCreateCmd;
 import io.fluxion.server.core.execution.query.ExecutableByIdQuery;
 import io.fluxion.server.core.schedule.ScheduleDelay;
+import io.fluxion.server.core.schedule.ScheduleDelayBatch;
 import io.fluxion.server.core.schedule.cmd.ScheduleDelayDeleteByIdsCmd;
 import io.fluxion.server.core.schedule.cmd.ScheduleDelayDeleteByScheduleCmd;
 import io.fluxion.server.core.schedule.cmd.ScheduleDelaysCreateCmd;
@@ -34,9 +38,9 @@ import io.fluxion.server.core.schedule.converter.ScheduleDelayEntityConverter;
 import io.fluxion.server.core.trigger.Trigger;
 import io.fluxion.server.core.trigger.TriggerType;
 import io.fluxion.server.core.trigger.query.TriggerByIdQuery;
-import io.fluxion.server.infrastructure.concurrent.LoggingTask;
 import io.fluxion.server.infrastructure.cqrs.Cmd;
 import io.fluxion.server.infrastructure.cqrs.Query;
+import io.fluxion.server.infrastructure.dao.TableConstants;
 import io.fluxion.server.infrastructure.dao.entity.ScheduleDelayEntity;
 import io.fluxion.server.infrastructure.dao.repository.ScheduleDelayEntityRepo;
 import io.fluxion.server.infrastructure.dao.tx.TransactionService;
@@ -46,13 +50,20 @@ import io.fluxion.server.infrastructure.schedule.task.DelayedTaskFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.axonframework.commandhandling.CommandHandler;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -72,17 +83,33 @@ public class ScheduleDelayCommandService {
     @Resource
     private TransactionService transactionService;
 
+    @Resource
+    private JdbcTemplate jdbcTemplate;
+
+    private static final String CLAIM_SQL = "update " + TableConstants.FLUXION_SCHEDULE_DELAY +
+        " set status = ? where schedule_id = ? and trigger_at = ? and status = ?";
+
+    @Resource
+    private BucketLoadStats bucketLoadStats;
+
+    /**
+     * 批量触发模式下 bucket + tick -> 待触发批次
+     */
+    private final Map<String, ScheduleDelayBatch> batches = new ConcurrentHashMap<>();
+
+    private static final AtomicLong BATCH_SEQ = new AtomicLong();
+
     @CommandHandler
     public void handle(ScheduleDelaysCreateCmd cmd) {
         List<ScheduleDelay> delays = cmd.getDelays();
-        List<ScheduleDelayEntity> entities = ScheduleDelayEntityConverter.convertToEntities(delays);
-        if (CollectionUtils.isEmpty(entities)) {
+        if (CollectionUtils.isEmpty(delays)) {
             return;
         }
-        for (ScheduleDelayEntity entity : entities) {
-            int bucket = Cmd.send(new BucketAllotCmd(entity.getDelayId())).getBucket();
-            entity.setBucket(bucket);
+        for (ScheduleDelay delay : delays) {
+            int bucket = Cmd.send(new BucketAllotCmd(delay.getDelayId())).getBucket();
+            delay.bucket(bucket);
         }
+        List<ScheduleDelayEntity> entities = ScheduleDelayEntityConverter.convertToEntities(delays);
         scheduleDelayEntityRepo.saveAllAndFlush(entities);
     }
 
@@ -93,21 +120,152 @@ public class ScheduleDelayCommandService {
         if (CollectionUtils.isEmpty(delays)) {
             return;
         }
-        List<ScheduleDelay.ID> delayIds = delays.stream()
-            .filter(delay -> ScheduleDelay.Status.INIT == delay.getStatus())
-            .map(ScheduleDelay::getId)
-            .collect(Collectors.toList());
-
-        for (ScheduleDelay.ID delayId : delayIds) {
+        Broker broker = BrokerContext.broker();
+        DelayedTaskScheduler delayedTaskScheduler = broker.delayedTaskScheduler();
+        boolean batchFire = broker.config().isDelayBatchFire();
+        long tickMillis = broker.config().getDelayTickMillis();
+        for (ScheduleDelay delay : delays) {
+            if (ScheduleDelay.Status.INIT != delay.getStatus()) {
+                continue;
+            }
+            if (batchFire && delay.getBucket() != null) {
+                loadToBatch(delay, tickMillis);
+                continue;
+            }
             // 加载到内存
-            String scheduleId = delayId.getScheduleId();
-            DelayedTaskScheduler delayedTaskScheduler = BrokerContext.broker().delayedTaskScheduler();
+            ScheduleDelay.ID delayId = delay.getId();
             delayedTaskScheduler.schedule(DelayedTaskFactory.create(
-                delayId.toString(),
+                delay.getDelayId(),
                 delayId.getTriggerAt(),
-                consumer(scheduleId, delayId)
+                consumer(delayId.getScheduleId(), delayId)
+            ));
+        }
+    }
+
+    /**
+     * 按 bucket + tick 合并到批次中
+     */
+    private void loadToBatch(ScheduleDelay delay, long tickMillis) {
+        // 向上取整 批次内的 delay 都不会早于 triggerAt 触发
+        long triggerAt = TimeUtils.toTimestamp(delay.getId().getTriggerAt());
+        long tick = (triggerAt + tickMillis - 1) / tickMillis * tickMillis;
+        String key = delay.getBucket() + "_" + tick;
+        while (true) {
+            ScheduleDelayBatch batch = batches.computeIfAbsent(key, k -> new ScheduleDelayBatch(
+                k + "_" + BATCH_SEQ.incrementAndGet(), delay.getBucket()
             ));
+            if (batch.add(delay)) {
+                // 相同 id 的任务只会被调度一次
+                BrokerContext.broker().delayedTaskScheduler().schedule(DelayedTaskFactory.create(
+                    batch.id(),
+                    tick,
+                    batchConsumer(key, batch)
+                ));
+                return;
+            }
+            // 已经触发 移除后重新创建批次
+            batches.remove(key, batch);
+        }
+    }
+
+    private Consumer<DelayedTask> batchConsumer(String key, ScheduleDelayBatch batch) {
+        return task -> {
+            batches.remove(key, batch);
+            List<ScheduleDelay.ID> delayIds = batch.fire();
+            if (CollectionUtils.isEmpty(delayIds)) {
+                return;
+            }
+            // 非当前节点的，可能重新分配给其他了
+            if (!Query.query(new BucketOwnedQuery(batch.bucket())).isOwned()) {
+                log.info("ScheduleDelayBatch is not schedule by current broker batchId:{} brokerId:{} bucket:{}",
+                    batch.id(), BrokerContext.broker().id(), batch.bucket()
+                );
+                return;
+            }
+            // 移除不需要调度的
+            Map<String, Trigger> triggers = new HashMap<>();
+            List<ScheduleDelay.ID> invalidIds = new ArrayList<>();
+            List<ScheduleDelay.ID> validIds = new ArrayList<>();
+            for (ScheduleDelay.ID delayId : delayIds) {
+                Trigger trigger = triggers.computeIfAbsent(delayId.getScheduleId(),
+                    scheduleId -> Query.query(new TriggerByIdQuery(scheduleId)).getTrigger()
+                );
+                // 已删除的调度查不到
+                if (trigger != null && trigger.isEnabled()) {
+                    validIds.add(delayId);
+                } else {
+                    invalidIds.add(delayId);
+                }
+            }
+            if (CollectionUtils.isNotEmpty(invalidIds)) {
+                changeDelayStatus(invalidIds, ScheduleDelay.Status.INIT, ScheduleDelay.Status.INVALID);
+            }
+            // 批量抢占
+            List<ScheduleDelay.ID> claimedIds = claimDelays(validIds);
+            if (CollectionUtils.isEmpty(claimedIds)) {
+                return;
+            }
+            bucketLoadStats.recordFire(batch.bucket(), claimedIds.size());
+            List<ScheduleDelay.ID> createIds = new ArrayList<>();
+            List<ScheduleDelay.ID> failedIds = new ArrayList<>();
+            List<ExecutionCreateCmd> createCmds = new ArrayList<>();
+            for (ScheduleDelay.ID delayId : claimedIds) {
+                Trigger trigger = triggers.get(delayId.getScheduleId());
+                try {
+                    Executable executable = Query.query(new ExecutableByIdQuery(
+                        trigger.executableId(), trigger.getConfig().getExecuteConfig().type()
+                    )).getExecutable();
+                    createCmds.add(new ExecutionCreateCmd(
+                        trigger.getId(), TriggerType.SCHEDULE, executable, delayId.getTriggerAt()
+                    ));
+                    createIds.add(delayId);
+                } catch (Exception e) {
+                    log.error("ScheduleDelay run error id:{}", JacksonUtils.toJSONString(delayId), e);
+                    failedIds.add(delayId);
+                }
+            }
+            if (CollectionUtils.isNotEmpty(createCmds)) {
+                try {
+                    // 创建执行记录
+                    List<Execution> executions = Cmd.send(new ExecutionsCreateCmd(createCmds)).getExecutions();
+                    // 异步执行
+                    Executor pipelineExecutor = BrokerContext.broker().pipelineExecutor();
+                    for (Execution execution : executions) {
+                        execution.executeAsync(pipelineExecutor);
+                    }
+                    changeDelayStatus(createIds, ScheduleDelay.Status.RUNNING, ScheduleDelay.Status.SUCCEED);
+                } catch (Exception e) {
+                    log.error("ScheduleDelayBatch run error id:{}", batch.id(), e);
+                    failedIds.addAll(createIds);
+                }
+            }
+            if (CollectionUtils.isNotEmpty(failedIds)) {
+                changeDelayStatus(failedIds, ScheduleDelay.Status.RUNNING, ScheduleDelay.Status.FAILED);
+            }
+        };
+    }
+
+    /**
+     * 批量条件更新抢占 INIT 状态的 delay，按更新行数返回抢占成功的
+     */
+    private List<ScheduleDelay.ID> claimDelays(List<ScheduleDelay.ID> delayIds) {
+        if (CollectionUtils.isEmpty(delayIds)) {
+            return Collections.emptyList();
+        }
+        List<Object[]> args = new ArrayList<>(delayIds.size());
+        for (ScheduleDelay.ID delayId : delayIds) {
+            args.add(new Object[]{
+                ScheduleDelay.Status.RUNNING.value, delayId.getScheduleId(), delayId.getTriggerAt(), ScheduleDelay.Status.INIT.value
+            });
+        }
+        int[] counts = transactionService.transactional(() -> jdbcTemplate.batchUpdate(CLAIM_SQL, args));
+        List<ScheduleDelay.ID> claimedIds = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                claimedIds.add(delayIds.get(i));
+            }
         }
+        return claimedIds;
     }
 
     private Consumer<DelayedTask> consumer(String scheduleId, ScheduleDelay.ID delayId) {
@@ -122,16 +280,15 @@ public class ScheduleDelayCommandService {
             }
             // 非当前节点的，可能重新分配给其他了
             ScheduleDelayEntity entity = scheduleDelayEntityRepo.findById(ScheduleDelayEntityConverter.convert(delayId)).orElse(null);
-            String brokerId = BrokerContext.broker().id();
-            List<Integer> buckets = Query.query(new BucketsByBrokerQuery(brokerId)).getBuckets();
-            if (!buckets.contains(entity.getBucket())
+            if (!Query.query(new BucketOwnedQuery(entity.getBucket())).isOwned()
                 || !changeDelayStatus(delayId, ScheduleDelay.Status.INIT, ScheduleDelay.Status.RUNNING)) {
                 task.stop();
                 log.info("ScheduleDelay is not schedule by current broker scheduleId:{} brokerId:{} bucket:{}",
-                    scheduleId, brokerId, entity.getBucket()
+                    scheduleId, BrokerContext.broker().id(), entity.getBucket()
                 );
                 return;
             }
+            bucketLoadStats.recordFire(entity.getBucket(), 1);
             try {
                 Executable executable = Query.query(new ExecutableByIdQuery(
                     trigger.executableId(), trigger.getConfig().getExecuteConfig().type()
@@ -141,10 +298,10 @@ public class ScheduleDelayCommandService {
                     trigger.getId(),
                     TriggerType.SCHEDULE,
                     executable,
-                    task.triggerAt()
+                    delayId.getTriggerAt()
                 )).getExecution();
                 // 异步执行
-                CommonThreadPool.IO.submit(new LoggingTask(execution::execute));
+                execution.executeAsync(BrokerContext.broker().pipelineExecutor());
                 changeDelayStatus(delayId, ScheduleDelay.Status.RUNNING, ScheduleDelay.Status.SUCCEED);
             } catch (Exception e) {
                 log.error("ScheduleDelay run error id:{}", JacksonUtils.toJSONString(delayId), e);
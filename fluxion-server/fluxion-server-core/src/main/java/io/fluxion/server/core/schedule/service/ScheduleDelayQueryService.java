@@ -21,10 +21,11 @@ import io.fluxion.common.utils.time.TimeUtils;
 import io.fluxion.server.core.broker.BrokerContext;
 import io.fluxion.server.core.broker.query.BucketsByBrokerQuery;
 import io.fluxion.server.core.schedule.ScheduleDelay;
-import io.fluxion.server.core.schedule.ScheduleDelayConstants;
 import io.fluxion.server.core.schedule.converter.ScheduleDelayEntityConverter;
+import io.fluxion.server.core.schedule.query.ScheduleDelayBacklogQuery;
 import io.fluxion.server.core.schedule.query.ScheduleDelayNextCleanQuery;
 import io.fluxion.server.core.schedule.query.ScheduleDelayNextTriggerQuery;
+import io.fluxion.server.infrastructure.cqrs.DirectDispatch;
 import io.fluxion.server.infrastructure.cqrs.Query;
 import io.fluxion.server.infrastructure.dao.entity.ScheduleDelayEntity;
 import lombok.extern.slf4j.Slf4j;
@@ -36,11 +37,15 @@ import javax.annotation.Resource;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Devil
  */
+@DirectDispatch
 @Slf4j
 @Service
 public class ScheduleDelayQueryService {
@@ -50,35 +55,73 @@ public class ScheduleDelayQueryService {
 
     @QueryHandler
     public ScheduleDelayNextTriggerQuery.Response handle(ScheduleDelayNextTriggerQuery query) {
-        String brokerId = BrokerContext.broker().id();
-        List<Integer> buckets = Query.query(new BucketsByBrokerQuery(brokerId)).getBuckets();
-        LocalDateTime nextTriggerAt = TimeUtils.currentLocalDateTime().plusSeconds(ScheduleDelayConstants.LOAD_INTERVAL_SECONDS);
-        List<ScheduleDelayEntity> entities = entityManager.createQuery("select e from ScheduleDelayEntity e" +
-                " where e.bucket in :buckets and e.id.triggerAt <= :triggerAt and delayId > :lastDelayId " +
-                " and e.status = :status and e.deleted = false order by id.triggerAt, delayId asc ", ScheduleDelayEntity.class
+        List<Integer> buckets;
+        if (query.getBucket() != null) {
+            buckets = Collections.singletonList(query.getBucket());
+        } else {
+            String brokerId = BrokerContext.broker().id();
+            buckets = Query.query(new BucketsByBrokerQuery(brokerId)).getBuckets();
+        }
+        LocalDateTime nextTriggerAt = TimeUtils.currentLocalDateTime().plusSeconds(BrokerContext.broker().config().getDelayLoadIntervalSeconds());
+        // 按 (triggerAt, delayId) 分页
+        String position = query.getLastTriggerAt() == null ? " and e.delayId > :lastDelayId "
+            : " and (e.id.triggerAt > :lastTriggerAt or (e.id.triggerAt = :lastTriggerAt and e.delayId > :lastDelayId)) ";
+        TypedQuery<ScheduleDelayEntity> typedQuery = entityManager.createQuery("select e from ScheduleDelayEntity e" +
+                " where e.bucket in :buckets and e.id.triggerAt <= :triggerAt " + position +
+                " and e.status = :status and e.deleted = false order by e.id.triggerAt, e.delayId asc ", ScheduleDelayEntity.class
             )
             .setParameter("buckets", buckets)
-            .setParameter("lastDelayId", query.getLastDelayId())
+            .setParameter("lastDelayId", StringUtils.defaultString(query.getLastDelayId()))
             .setParameter("triggerAt", nextTriggerAt)
             .setParameter("status", ScheduleDelay.Status.INIT.value)
-            .setMaxResults(query.getLimit())
-            .getResultList();
+            .setMaxResults(query.getLimit());
+        if (query.getLastTriggerAt() != null) {
+            typedQuery.setParameter("lastTriggerAt", query.getLastTriggerAt());
+        }
+        List<ScheduleDelayEntity> entities = typedQuery.getResultList();
         return new ScheduleDelayNextTriggerQuery.Response(ScheduleDelayEntityConverter.convert(entities));
     }
 
+    @QueryHandler
+    public ScheduleDelayBacklogQuery.Response handle(ScheduleDelayBacklogQuery query) {
+        List<Object[]> rows = entityManager.createQuery("select e.bucket, count(e) from ScheduleDelayEntity e" +
+                " where e.bucket in :buckets and e.status = :status and e.id.triggerAt <= :triggerAt and e.deleted = false" +
+                " group by e.bucket", Object[].class
+            )
+            .setParameter("buckets", query.getBuckets())
+            .setParameter("status", ScheduleDelay.Status.INIT.value)
+            .setParameter("triggerAt", query.getTriggerAt())
+            .getResultList();
+        Map<Integer, Integer> backlogs = new HashMap<>();
+        for (Object[] row : rows) {
+            backlogs.put(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+        }
+        return new ScheduleDelayBacklogQuery.Response(backlogs);
+    }
+
     @QueryHandler
     public ScheduleDelayNextCleanQuery.Response handle(ScheduleDelayNextCleanQuery query) {
-        String brokerId = BrokerContext.broker().id();
-        List<Integer> buckets = Query.query(new BucketsByBrokerQuery(brokerId)).getBuckets();
-        List<ScheduleDelayEntity> entities = entityManager.createQuery("select e from ScheduleDelayEntity e" +
-                " where e.bucket in :buckets and e.id.triggerAt <= :triggerAt and delayId > :lastDelayId " +
-                " order by id.triggerAt, delayId asc ", ScheduleDelayEntity.class
+        List<Integer> buckets;
+        if (query.getBucket() != null) {
+            buckets = Collections.singletonList(query.getBucket());
+        } else {
+            String brokerId = BrokerContext.broker().id();
+            buckets = Query.query(new BucketsByBrokerQuery(brokerId)).getBuckets();
+        }
+        String position = query.getLastTriggerAt() == null ? " and e.delayId > :lastDelayId "
+            : " and (e.id.triggerAt > :lastTriggerAt or (e.id.triggerAt = :lastTriggerAt and e.delayId > :lastDelayId)) ";
+        TypedQuery<ScheduleDelayEntity> typedQuery = entityManager.createQuery("select e from ScheduleDelayEntity e" +
+                " where e.bucket in :buckets and e.id.triggerAt <= :triggerAt " + position +
+                " order by e.id.triggerAt, e.delayId asc ", ScheduleDelayEntity.class
             )
             .setParameter("buckets", buckets)
-            .setParameter("lastDelayId", query.getLastDelayId())
+            .setParameter("lastDelayId", StringUtils.defaultString(query.getLastDelayId()))
             .setParameter("triggerAt", query.getEndAt())
-            .setMaxResults(query.getLimit())
-            .getResultList();
+            .setMaxResults(query.getLimit());
+        if (query.getLastTriggerAt() != null) {
+            typedQuery.setParameter("lastTriggerAt", query.getLastTriggerAt());
+        }
+        List<ScheduleDelayEntity> entities = typedQuery.getResultList();
         return new ScheduleDelayNextCleanQuery.Response(ScheduleDelayEntityConverter.convert(entities));
     }
 
@@ -19,25 +19,29 @@ package io.fluxion.server.core.schedule.service;
 import io.fluxion.common.utils.time.TimeUtils;
 import io.fluxion.server.core.broker.BrokerContext;
 import io.fluxion.server.core.broker.query.BucketsByBrokerQuery;
-import io.fluxion.server.core.schedule.ScheduleConstants;
 import io.fluxion.server.core.schedule.converter.ScheduleEntityConverter;
 import io.fluxion.server.core.schedule.query.ScheduleByIdQuery;
 import io.fluxion.server.core.schedule.query.ScheduleNextTriggerQuery;
+import io.fluxion.server.infrastructure.cqrs.DirectDispatch;
 import io.fluxion.server.infrastructure.cqrs.Query;
 import io.fluxion.server.infrastructure.dao.entity.ScheduleEntity;
 import io.fluxion.server.infrastructure.dao.repository.ScheduleEntityRepo;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.axonframework.queryhandling.QueryHandler;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
 import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * @author Devil
  */
+@DirectDispatch
 @Slf4j
 @Service
 public class ScheduleQueryService {
@@ -56,20 +60,35 @@ public class ScheduleQueryService {
 
     @QueryHandler
     public ScheduleNextTriggerQuery.Response handle(ScheduleNextTriggerQuery query) {
-        String brokerId = BrokerContext.broker().id();
-        List<Integer> buckets = Query.query(new BucketsByBrokerQuery(brokerId)).getBuckets();
-        LocalDateTime nextTriggerAt = TimeUtils.currentLocalDateTime().plusSeconds(ScheduleConstants.LOAD_INTERVAL_SECONDS);
-        LocalDateTime startTime = TimeUtils.currentLocalDateTime().plusSeconds(-ScheduleConstants.LOAD_INTERVAL_SECONDS);
-        List<ScheduleEntity> entities = entityManager.createQuery("select e from ScheduleEntity e" +
-                " where e.bucket in :buckets and e.nextTriggerAt <= :nextTriggerAt " +
+        List<Integer> buckets;
+        if (query.getBucket() != null) {
+            buckets = Collections.singletonList(query.getBucket());
+        } else {
+            String brokerId = BrokerContext.broker().id();
+            buckets = Query.query(new BucketsByBrokerQuery(brokerId)).getBuckets();
+        }
+        // 下次加载前会触发的
+        long loadIntervalSeconds = BrokerContext.broker().config().scheduleLoadTickSeconds();
+        LocalDateTime nextTriggerAt = TimeUtils.currentLocalDateTime().plusSeconds(loadIntervalSeconds);
+        LocalDateTime startTime = TimeUtils.currentLocalDateTime().plusSeconds(-loadIntervalSeconds);
+        // 按 (nextTriggerAt, scheduleId) 分页
+        boolean keyset = query.getLastNextTriggerAt() != null;
+        String position = keyset ? " and (e.nextTriggerAt > :lastNextTriggerAt" +
+            " or (e.nextTriggerAt = :lastNextTriggerAt and e.scheduleId > :lastScheduleId)) " : "";
+        TypedQuery<ScheduleEntity> typedQuery = entityManager.createQuery("select e from ScheduleEntity e" +
+                " where e.bucket in :buckets and e.nextTriggerAt <= :nextTriggerAt " + position +
                 "and e.startTime <= :startTime and e.endTime >= :nextTriggerAt " +
-                "and e.enabled = true and e.deleted = false order by nextTriggerAt", ScheduleEntity.class
+                "and e.enabled = true and e.deleted = false order by e.nextTriggerAt, e.scheduleId", ScheduleEntity.class
             )
             .setParameter("buckets", buckets)
             .setParameter("nextTriggerAt", nextTriggerAt)
             .setParameter("startTime", startTime)
-            .setMaxResults(query.getLimit())
-            .getResultList();
+            .setMaxResults(query.getLimit());
+        if (keyset) {
+            typedQuery.setParameter("lastNextTriggerAt", query.getLastNextTriggerAt())
+                .setParameter("lastScheduleId", StringUtils.defaultString(query.getLastScheduleId()));
+        }
+        List<ScheduleEntity> entities = typedQuery.getResultList();
         return new ScheduleNextTriggerQuery.Response(ScheduleEntityConverter.convert(entities));
     }
 
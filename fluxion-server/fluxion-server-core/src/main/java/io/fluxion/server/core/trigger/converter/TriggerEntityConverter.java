@@ -63,6 +63,18 @@ public class TriggerEntityConverter {
         return trigger;
     }
 
+    public static Trigger convert(TriggerEntity entity, String version, TriggerConfig config) {
+        Trigger trigger = new Trigger();
+        trigger.setId(entity.getTriggerId());
+        trigger.setName(entity.getName());
+        trigger.setDescription(entity.getDescription());
+        trigger.setEnabled(entity.isEnabled());
+        trigger.setPublished(StringUtils.isNotBlank(version));
+        trigger.setConfig(config);
+        trigger.setVersion(version);
+        return trigger;
+    }
+
     public static String config(TriggerConfig config) {
         return JacksonUtils.toJSONString(config);
     }
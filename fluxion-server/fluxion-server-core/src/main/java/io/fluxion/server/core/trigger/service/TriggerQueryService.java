@@ -16,7 +16,12 @@
 
 package io.fluxion.server.core.trigger.service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.fluxion.common.utils.json.JacksonUtils;
 import io.fluxion.server.core.trigger.Trigger;
+import io.fluxion.server.core.trigger.TriggerConfig;
 import io.fluxion.server.core.trigger.converter.TriggerEntityConverter;
 import io.fluxion.server.core.trigger.query.TriggerByIdQuery;
 import io.fluxion.server.core.trigger.query.TriggerByIdsQuery;
@@ -42,6 +47,16 @@ import java.util.stream.Collectors;
 @Service
 public class TriggerQueryService {
 
+    private static final int CONFIG_CACHE_SIZE = 10000;
+
+    /**
+     * 版本 -> 解析后的配置，配置对象在多次触发间共享，不能修改
+     */
+    private static final Cache<Version.ID, TriggerConfig> CONFIG_CACHE = CacheBuilder.newBuilder()
+        .maximumSize(CONFIG_CACHE_SIZE)
+        .recordStats()
+        .build();
+
     @Resource
     private TriggerEntityRepo triggerEntityRepo;
 
@@ -57,11 +72,35 @@ public class TriggerQueryService {
         } else {
             vs = getVersion(entity, query.getVersionMode());
         }
-        Version version = Query.query(new VersionByIdQuery(
-            TriggerEntityConverter.versionId(entity.getTriggerId(), vs)
-        )).getVersion();
-        Trigger trigger = TriggerEntityConverter.convert(entity, version);
-        return new TriggerByIdQuery.Response(trigger);
+        Version.ID versionId = TriggerEntityConverter.versionId(entity.getTriggerId(), vs);
+        if (!cacheable(entity, vs)) {
+            Version version = Query.query(new VersionByIdQuery(versionId)).getVersion();
+            return new TriggerByIdQuery.Response(TriggerEntityConverter.convert(entity, version));
+        }
+        TriggerConfig config = CONFIG_CACHE.getIfPresent(versionId);
+        if (config == null) {
+            Version version = Query.query(new VersionByIdQuery(versionId)).getVersion();
+            if (version == null) {
+                return new TriggerByIdQuery.Response(TriggerEntityConverter.convert(entity, null));
+            }
+            config = JacksonUtils.toType(version.getConfig(), TriggerConfig.class);
+            CONFIG_CACHE.put(versionId, config);
+        }
+        return new TriggerByIdQuery.Response(TriggerEntityConverter.convert(entity, vs, config));
+    }
+
+    /**
+     * 草稿版本会被覆盖，其余版本发布后不再变化
+     */
+    private boolean cacheable(TriggerEntity entity, String version) {
+        return StringUtils.isNotBlank(version) && !version.equals(entity.getDraftVersion());
+    }
+
+    /**
+     * 缓存命中/未命中/淘汰统计
+     */
+    public static CacheStats configCacheStats() {
+        return CONFIG_CACHE.stats();
     }
 
     @QueryHandler
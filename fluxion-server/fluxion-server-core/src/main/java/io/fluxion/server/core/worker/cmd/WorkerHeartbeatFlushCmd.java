@@ -0,0 +1,28 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.fluxion.server.core.worker.cmd;
+
+import io.fluxion.server.infrastructure.cqrs.ICmd;
+
+/**
+ * 将缓冲中的 worker 心跳批量写库
+ *
+ * @author Devil
+ */
+public class WorkerHeartbeatFlushCmd implements ICmd<Void> {
+}
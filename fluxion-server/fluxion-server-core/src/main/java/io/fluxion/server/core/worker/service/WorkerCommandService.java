@@ -16,19 +16,24 @@
 
 package io.fluxion.server.core.worker.service;
 
+import io.fluxion.server.core.broker.BrokerContext;
 import io.fluxion.server.core.worker.Worker;
 import io.fluxion.server.core.worker.cmd.WorkerHeartbeatCmd;
+import io.fluxion.server.core.worker.cmd.WorkerHeartbeatFlushCmd;
 import io.fluxion.server.core.worker.cmd.WorkerSaveCmd;
 import io.fluxion.server.core.worker.cmd.WorkerSliceOfflineCmd;
 import io.fluxion.server.core.worker.converter.WorkerConverter;
 import io.fluxion.server.core.worker.metric.WorkerMetric;
 import io.fluxion.server.infrastructure.cqrs.Cmd;
+import io.fluxion.server.infrastructure.cqrs.DirectDispatch;
+import io.fluxion.server.infrastructure.dao.TableConstants;
 import io.fluxion.server.infrastructure.dao.entity.WorkerEntity;
 import io.fluxion.server.infrastructure.dao.entity.WorkerExecutorEntity;
 import io.fluxion.server.infrastructure.dao.entity.WorkerMetricEntity;
 import io.fluxion.server.infrastructure.dao.repository.WorkerEntityRepo;
 import io.fluxion.server.infrastructure.dao.repository.WorkerExecutorEntityRepo;
 import io.fluxion.server.infrastructure.dao.repository.WorkerMetricEntityRepo;
+import io.fluxion.server.infrastructure.dao.tx.TransactionService;
 import io.fluxion.server.infrastructure.exception.ErrorCode;
 import io.fluxion.server.infrastructure.exception.PlatformException;
 import io.fluxion.server.infrastructure.id.cmd.IDGenerateCmd;
@@ -39,18 +44,25 @@ import io.fluxion.server.infrastructure.utils.JpaHelper;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.axonframework.commandhandling.CommandHandler;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.annotation.Resource;
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * @author Devil
  */
+@DirectDispatch
 @Service
 public class WorkerCommandService {
 
@@ -62,6 +74,18 @@ public class WorkerCommandService {
     private WorkerMetricEntityRepo workerMetricEntityRepo;
     @Resource
     private EntityManager entityManager;
+    @Resource
+    private WorkerRegistry workerRegistry;
+    @Resource
+    private WorkerHeartbeatBuffer workerHeartbeatBuffer;
+    @Resource
+    private TransactionService transactionService;
+    @Resource
+    private JdbcTemplate jdbcTemplate;
+
+    private static final String FLUSH_METRIC_SQL = "update " + TableConstants.FLUXION_WORKER_METRIC +
+        " set cpu_processors = ?, cpu_load = ?, free_memory = ?, available_queue_num = ?, last_heartbeat_at = ?" +
+        " where worker_id = ? and last_heartbeat_at <= ?";
 
     @Transactional
     @CommandHandler
@@ -89,27 +113,107 @@ public class WorkerCommandService {
         // Tags 存储
         Cmd.send(new TagsSaveByRefCmd(workerId, TagRefType.WORKER, worker.getTags()));
 
+        // 提交后再更新本地注册表，避免回滚后仍被选中
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    workerRegistry.save(worker);
+                }
+            });
+        } else {
+            workerRegistry.save(worker);
+        }
+
         return new WorkerSaveCmd.Response(worker.id());
     }
 
-    @Transactional
     @CommandHandler
     public void handle(WorkerHeartbeatCmd cmd) {
-        WorkerEntity entity = workerEntityRepo.findById(cmd.getWorkerId()).orElse(null);
-        if (entity == null) {
-            throw new PlatformException(ErrorCode.PARAM_ERROR, "worker not found by id:" + cmd.getWorkerId());
+        String workerId = cmd.getWorkerId();
+        String appId = workerRegistry.appId(workerId);
+        if (appId == null) {
+            WorkerEntity entity = workerEntityRepo.findById(workerId).orElse(null);
+            if (entity == null) {
+                throw new PlatformException(ErrorCode.PARAM_ERROR, "worker not found by id:" + workerId);
+            }
+            appId = entity.getAppId();
+        }
+        if (BrokerContext.broker().config().getWorkerHeartbeatFlushMillis() > 0) {
+            workerHeartbeatBuffer.offer(new WorkerHeartbeatBuffer.Heartbeat(workerId, cmd.getMetric()));
+        } else {
+            transactionService.transactional(() -> {
+                online(Collections.singletonList(workerId));
+                workerMetricEntityRepo.saveAndFlush(WorkerConverter.toMetricEntity(workerId, cmd.getMetric()));
+            });
+        }
+        workerRegistry.heartbeat(appId, workerId, cmd.getMetric());
+    }
+
+    @CommandHandler
+    public void handle(WorkerHeartbeatFlushCmd cmd) {
+        List<WorkerHeartbeatBuffer.Heartbeat> heartbeats = workerHeartbeatBuffer.drain();
+        if (heartbeats.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        List<String> workerIds = new ArrayList<>(heartbeats.size());
+        List<Object[]> args = new ArrayList<>(heartbeats.size());
+        for (WorkerHeartbeatBuffer.Heartbeat heartbeat : heartbeats) {
+            WorkerMetric metric = heartbeat.getMetric();
+            workerIds.add(heartbeat.getWorkerId());
+            args.add(new Object[]{
+                metric.getCpuProcessors(), metric.getCpuLoad(), metric.getFreeMemory(), metric.getAvailableQueueNum(),
+                metric.getLastHeartbeatAt(), heartbeat.getWorkerId(), metric.getLastHeartbeatAt()
+            });
         }
+        try {
+            flush(heartbeats, workerIds, args);
+        } catch (RuntimeException e) {
+            // 放回缓冲 下次重试
+            workerHeartbeatBuffer.requeue(heartbeats);
+            throw e;
+        }
+        workerHeartbeatBuffer.recordFlush(heartbeats.size(), System.currentTimeMillis() - start);
+    }
+
+    private void flush(List<WorkerHeartbeatBuffer.Heartbeat> heartbeats, List<String> workerIds, List<Object[]> args) {
+        transactionService.transactional(() -> {
+            online(workerIds);
+            int[] counts = jdbcTemplate.batchUpdate(FLUSH_METRIC_SQL, args);
+            // 没有更新到的可能是还没有指标记录 补充插入
+            List<WorkerHeartbeatBuffer.Heartbeat> missed = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    missed.add(heartbeats.get(i));
+                }
+            }
+            if (!missed.isEmpty()) {
+                Set<String> exists = workerMetricEntityRepo.findByWorkerIdIn(
+                    missed.stream().map(WorkerHeartbeatBuffer.Heartbeat::getWorkerId).collect(Collectors.toList())
+                ).stream().map(WorkerMetricEntity::getWorkerId).collect(Collectors.toSet());
+                List<WorkerMetricEntity> entities = missed.stream()
+                    .filter(heartbeat -> !exists.contains(heartbeat.getWorkerId()))
+                    .map(heartbeat -> WorkerConverter.toMetricEntity(heartbeat.getWorkerId(), heartbeat.getMetric()))
+                    .collect(Collectors.toList());
+                if (CollectionUtils.isNotEmpty(entities)) {
+                    workerMetricEntityRepo.saveAllAndFlush(entities);
+                }
+            }
+        });
+    }
+
+    /**
+     * 只更新还不是在线状态的
+     */
+    private void online(List<String> workerIds) {
         entityManager.createQuery("update WorkerEntity " +
                 "set status = :status " +
-                "where workerId = :workerId"
+                "where workerId in :workerIds and status <> :status"
             )
             .setParameter("status", Worker.Status.ONLINE.status)
-            .setParameter("workerId", cmd.getWorkerId())
+            .setParameter("workerIds", workerIds)
             .executeUpdate();
-
-
-        WorkerMetricEntity metricEntity = WorkerConverter.toMetricEntity(cmd.getWorkerId(), cmd.getMetric());
-        workerMetricEntityRepo.saveAndFlush(metricEntity);
     }
 
     @Transactional
@@ -121,16 +225,17 @@ public class WorkerCommandService {
         if (CollectionUtils.isEmpty(metricEntities)) {
             return new WorkerSliceOfflineCmd.Response(0);
         }
+        List<String> workerIds = metricEntities.stream()
+            .map(WorkerMetricEntity::getWorkerId)
+            .collect(Collectors.toList());
         entityManager.createQuery("update WorkerEntity " +
                 "set status = :status " +
                 "where workerId in :workerIds"
             )
             .setParameter("status", Worker.Status.OFFLINE.status)
-            .setParameter("workerIds", metricEntities.stream()
-                .map(WorkerMetricEntity::getWorkerId)
-                .collect(Collectors.toList())
-            )
+            .setParameter("workerIds", workerIds)
             .executeUpdate();
+        workerRegistry.offline(workerIds);
         return new WorkerSliceOfflineCmd.Response(metricEntities.size());
     }
 
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.fluxion.server.core.worker.service;
+
+import io.fluxion.common.utils.time.TimeUtils;
+import io.fluxion.server.core.worker.metric.WorkerMetric;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * worker 心跳缓冲
+ * 每个 worker 只保留最新一次心跳，定时批量写库
+ *
+ * @author Devil
+ */
+@Component
+public class WorkerHeartbeatBuffer {
+
+    private final Map<String, Heartbeat> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder offered = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder flushed = new LongAdder();
+
+    private volatile long lastFlushCostMs;
+
+    private volatile long maxFlushCostMs;
+
+    /**
+     * 上次写库时的累计接收数
+     */
+    private long lastOffered;
+
+    private long lastFlushAt = TimeUtils.currentTimeMillis();
+
+    private volatile double ingestRate;
+
+    public void offer(Heartbeat heartbeat) {
+        offered.increment();
+        pending.merge(heartbeat.getWorkerId(), heartbeat, (old, now) -> {
+            coalesced.increment();
+            // 乱序到达时保留较新的
+            return newer(old, now) ? old : now;
+        });
+    }
+
+    /**
+     * 写库失败时放回 期间到达的较新心跳优先，不计入接收数
+     */
+    public void requeue(List<Heartbeat> heartbeats) {
+        for (Heartbeat heartbeat : heartbeats) {
+            pending.merge(heartbeat.getWorkerId(), heartbeat, (current, failed) -> newer(failed, current) ? failed : current);
+        }
+    }
+
+    /**
+     * 取出所有待写入的心跳
+     */
+    public List<Heartbeat> drain() {
+        List<Heartbeat> heartbeats = new ArrayList<>(pending.size());
+        for (Map.Entry<String, Heartbeat> entry : pending.entrySet()) {
+            // 取出期间有新的心跳则留给下一次
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                heartbeats.add(entry.getValue());
+            }
+        }
+        return heartbeats;
+    }
+
+    synchronized void recordFlush(int num, long costMs) {
+        flushed.add(num);
+        lastFlushCostMs = costMs;
+        maxFlushCostMs = Math.max(maxFlushCostMs, costMs);
+        long now = TimeUtils.currentTimeMillis();
+        long total = offered.sum();
+        ingestRate = (total - lastOffered) * 1000.0 / Math.max(now - lastFlushAt, 1);
+        lastOffered = total;
+        lastFlushAt = now;
+    }
+
+    public int pending() {
+        return pending.size();
+    }
+
+    public long offered() {
+        return offered.sum();
+    }
+
+    /**
+     * 被合并掉的心跳数
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    public long flushed() {
+        return flushed.sum();
+    }
+
+    public long lastFlushCostMs() {
+        return lastFlushCostMs;
+    }
+
+    public long maxFlushCostMs() {
+        return maxFlushCostMs;
+    }
+
+    /**
+     * 最近一次写库周期内每秒接收的心跳数
+     */
+    public double ingestRate() {
+        return ingestRate;
+    }
+
+    private static boolean newer(Heartbeat old, Heartbeat now) {
+        if (old.getMetric().getLastHeartbeatAt() == null || now.getMetric().getLastHeartbeatAt() == null) {
+            return false;
+        }
+        return old.getMetric().getLastHeartbeatAt().isAfter(now.getMetric().getLastHeartbeatAt());
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Heartbeat {
+
+        private final String workerId;
+
+        private final WorkerMetric metric;
+
+    }
+
+}
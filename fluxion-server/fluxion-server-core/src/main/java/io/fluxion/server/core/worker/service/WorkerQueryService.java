@@ -16,7 +16,6 @@
 
 package io.fluxion.server.core.worker.service;
 
-import com.google.common.collect.Lists;
 import io.fluxion.server.core.executor.option.DispatchOption;
 import io.fluxion.server.core.worker.Worker;
 import io.fluxion.server.core.worker.converter.WorkerConverter;
@@ -27,6 +26,7 @@ import io.fluxion.server.core.worker.query.WorkersFilterQuery;
 import io.fluxion.server.core.worker.selector.WorkerSelectInvocation;
 import io.fluxion.server.core.worker.selector.WorkerSelector;
 import io.fluxion.server.core.worker.selector.WorkerSelectorFactory;
+import io.fluxion.server.infrastructure.cqrs.DirectDispatch;
 import io.fluxion.server.infrastructure.cqrs.Query;
 import io.fluxion.server.infrastructure.dao.entity.WorkerEntity;
 import io.fluxion.server.infrastructure.dao.entity.WorkerExecutorEntity;
@@ -50,6 +50,7 @@ import java.util.stream.Collectors;
 /**
  * @author Devil
  */
+@DirectDispatch
 @Service
 public class WorkerQueryService {
 
@@ -59,6 +60,8 @@ public class WorkerQueryService {
     private WorkerExecutorEntityRepo workerExecutorEntityRepo;
     @Resource
     private WorkerMetricEntityRepo workerMetricEntityRepo;
+    @Resource
+    private WorkerRegistry workerRegistry;
 
     private static final WorkerSelectorFactory WORKER_SELECTOR_FACTORY = new WorkerSelectorFactory();
 
@@ -91,14 +94,10 @@ public class WorkerQueryService {
     public WorkersFilterQuery.Response handle(WorkersFilterQuery query) {
         String executorName = query.getExecutorName();
         DispatchOption dispatchOption = query.getDispatchOption();
-        List<Worker> workers = Query.query(new WorkerByAppQuery(
-                query.getAppId(), Lists.newArrayList(Worker.Status.ONLINE)
-            )).getWorkers().stream()
-            .filter(Worker::isEnabled)
-            .collect(Collectors.toList());
+        // 注册表已按执行器和标签索引筛选
+        List<Worker> workers = workerRegistry.candidates(query.getAppId(), executorName, dispatchOption.getTagFilters());
         // 广播的应该不关心资源大小 在配置的时候直接处理
         WorkerFilter workerFilter = new WorkerFilter(workers)
-            .filterExecutor(executorName)
             .filterTags(dispatchOption.getTagFilters());
         if (query.isFilterResource()) {
             workerFilter = workerFilter.filterResources(dispatchOption.getCpuRequirement(), dispatchOption.getRamRequirement());
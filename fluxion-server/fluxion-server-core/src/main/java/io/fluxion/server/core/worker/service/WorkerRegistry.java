@@ -0,0 +1,326 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.fluxion.server.core.worker.service;
+
+import com.google.common.collect.Lists;
+import io.fluxion.common.utils.time.TimeUtils;
+import io.fluxion.server.core.worker.Worker;
+import io.fluxion.server.core.worker.executor.WorkerExecutor;
+import io.fluxion.server.core.worker.metric.WorkerMetric;
+import io.fluxion.server.core.worker.query.WorkerByAppQuery;
+import io.fluxion.server.infrastructure.cqrs.Query;
+import io.fluxion.server.infrastructure.tag.Tag;
+import io.fluxion.server.infrastructure.tag.TagFilterCondition;
+import io.fluxion.server.infrastructure.tag.TagFilterOption;
+import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * broker 内存中的 worker 注册表
+ * 按 app 维护在线的 worker 以及执行器名、标签索引，选择 worker 时不需要查库。
+ * 当前节点处理的注册、心跳、下线直接更新；其它节点处理的变化超过 {@link #REFRESH_INTERVAL_MS} 后从库中重新加载。
+ *
+ * @author Devil
+ */
+@Component
+public class WorkerRegistry {
+
+    private static final long REFRESH_INTERVAL_MS = 10000;
+
+    /**
+     * appId -> 在线的 worker
+     */
+    private final Map<String, AppWorkers> apps = new ConcurrentHashMap<>();
+
+    /**
+     * workerId -> appId 包括下线的
+     */
+    private final Map<String, String> workerApps = new ConcurrentHashMap<>();
+
+    /**
+     * appId -> 正在进行的加载 每个 app 同时只有一个线程查库
+     */
+    private final Map<String, CompletableFuture<AppWorkers>> loadings = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder reloads = new LongAdder();
+
+    /**
+     * 按执行器和可索引的标签条件筛选，其余条件由调用方再过滤
+     *
+     * @param executorName 为空不过滤
+     */
+    public List<Worker> candidates(String appId, String executorName, List<TagFilterOption> tagFilters) {
+        AppWorkers app = app(appId);
+        Set<String> ids = executorName == null ? app.workers.keySet() : app.byExecutor.getOrDefault(executorName, Collections.emptySet());
+        if (CollectionUtils.isNotEmpty(tagFilters)) {
+            for (TagFilterOption tagFilter : tagFilters) {
+                Set<String> tagged = app.tagged(tagFilter);
+                if (tagged == null) {
+                    continue;
+                }
+                Set<String> smaller = tagged.size() < ids.size() ? tagged : ids;
+                Set<String> larger = smaller == tagged ? ids : tagged;
+                Set<String> intersection = new HashSet<>();
+                for (String id : smaller) {
+                    if (larger.contains(id)) {
+                        intersection.add(id);
+                    }
+                }
+                ids = intersection;
+            }
+        }
+        List<Worker> workers = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Worker worker = app.workers.get(id);
+            if (worker != null && worker.isEnabled()) {
+                workers.add(worker);
+            }
+        }
+        return workers;
+    }
+
+    /**
+     * 注册或更新 只更新已加载的 app，未加载的之后会从库中加载
+     */
+    public void save(Worker worker) {
+        workerApps.put(worker.id(), worker.getAppId());
+        AppWorkers app = apps.get(worker.getAppId());
+        if (app == null) {
+            return;
+        }
+        if (worker.isAlive()) {
+            app.put(worker);
+        } else {
+            app.remove(worker.id());
+        }
+    }
+
+    public void heartbeat(String appId, String workerId, WorkerMetric metric) {
+        workerApps.put(workerId, appId);
+        AppWorkers app = apps.get(appId);
+        if (app == null) {
+            return;
+        }
+        Worker worker = app.workers.get(workerId);
+        if (worker == null) {
+            // 在其它节点注册或已被判定下线，重新从库中加载
+            app.stale = true;
+            return;
+        }
+        app.put(new Worker(
+            worker.id(), worker.getAppId(), worker.host(), worker.port(), worker.protocol(),
+            worker.getExecutors(), worker.getTags(), metric, Worker.Status.ONLINE, worker.isEnabled()
+        ));
+    }
+
+    public void offline(Collection<String> workerIds) {
+        for (AppWorkers app : apps.values()) {
+            for (String workerId : workerIds) {
+                app.remove(workerId);
+            }
+        }
+    }
+
+    /**
+     * worker 所属的 app，未知时返回 null
+     */
+    public String appId(String workerId) {
+        return workerApps.get(workerId);
+    }
+
+    public int apps() {
+        return apps.size();
+    }
+
+    public int workers() {
+        int sum = 0;
+        for (AppWorkers app : apps.values()) {
+            sum += app.workers.size();
+        }
+        return sum;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long reloads() {
+        return reloads.sum();
+    }
+
+    private AppWorkers app(String appId) {
+        AppWorkers current = apps.get(appId);
+        if (current != null && !current.stale && TimeUtils.currentTimeMillis() - current.loadedAt <= REFRESH_INTERVAL_MS) {
+            hits.increment();
+            return current;
+        }
+        CompletableFuture<AppWorkers> future = new CompletableFuture<>();
+        CompletableFuture<AppWorkers> loading = loadings.putIfAbsent(appId, future);
+        if (loading == null) {
+            try {
+                AppWorkers loaded = apps.get(appId);
+                // 期间已被其它线程加载
+                if (loaded == current) {
+                    loaded = load(appId);
+                }
+                future.complete(loaded);
+                return loaded;
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+                throw e;
+            } finally {
+                loadings.remove(appId, future);
+            }
+        }
+        // 其它线程正在加载 有旧数据时先使用旧数据
+        if (current != null) {
+            return current;
+        }
+        try {
+            return loading.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * 从库中查询 app 在线的 worker
+     */
+    protected List<Worker> query(String appId) {
+        return Query.query(new WorkerByAppQuery(
+            appId, Lists.newArrayList(Worker.Status.ONLINE)
+        )).getWorkers();
+    }
+
+    private AppWorkers load(String appId) {
+        List<Worker> workers = query(appId);
+        AppWorkers app = new AppWorkers(TimeUtils.currentTimeMillis());
+        for (Worker worker : workers) {
+            if (worker != null) {
+                app.put(worker);
+                workerApps.put(worker.id(), appId);
+            }
+        }
+        apps.put(appId, app);
+        reloads.increment();
+        return app;
+    }
+
+    private static class AppWorkers {
+
+        private final Map<String, Worker> workers = new ConcurrentHashMap<>();
+
+        /**
+         * 执行器名 -> workerId
+         */
+        private final Map<String, Set<String>> byExecutor = new ConcurrentHashMap<>();
+
+        /**
+         * 标签名 -> 标签值 -> workerId
+         */
+        private final Map<String, Map<String, Set<String>>> byTag = new ConcurrentHashMap<>();
+
+        private final long loadedAt;
+
+        private volatile boolean stale;
+
+        AppWorkers(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        synchronized void put(Worker worker) {
+            Worker old = workers.put(worker.id(), worker);
+            if (old != null) {
+                unindex(old);
+            }
+            for (WorkerExecutor executor : executors(worker)) {
+                byExecutor.computeIfAbsent(executor.getName(), k -> ConcurrentHashMap.newKeySet()).add(worker.id());
+            }
+            for (Tag tag : tags(worker)) {
+                byTag.computeIfAbsent(tag.getName(), k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(tag.getValue(), k -> ConcurrentHashMap.newKeySet()).add(worker.id());
+            }
+        }
+
+        synchronized void remove(String workerId) {
+            Worker old = workers.remove(workerId);
+            if (old != null) {
+                unindex(old);
+            }
+        }
+
+        /**
+         * 满足标签条件的 workerId，不能用索引判断的返回 null
+         */
+        Set<String> tagged(TagFilterOption tagFilter) {
+            TagFilterCondition condition = tagFilter.getCondition();
+            Map<String, Set<String>> values = byTag.getOrDefault(tagFilter.getTagName(), Collections.emptyMap());
+            if (TagFilterCondition.MUST_MATCH_VALUE == condition) {
+                return values.getOrDefault(tagFilter.getTagValue(), Collections.emptySet());
+            }
+            if (TagFilterCondition.EXISTS == condition) {
+                Set<String> ids = new HashSet<>();
+                for (Set<String> valueIds : values.values()) {
+                    ids.addAll(valueIds);
+                }
+                return ids;
+            }
+            return null;
+        }
+
+        private void unindex(Worker worker) {
+            String workerId = worker.id();
+            for (WorkerExecutor executor : executors(worker)) {
+                Set<String> ids = byExecutor.get(executor.getName());
+                if (ids != null) {
+                    ids.remove(workerId);
+                }
+            }
+            for (Tag tag : tags(worker)) {
+                Map<String, Set<String>> values = byTag.get(tag.getName());
+                Set<String> ids = values == null ? null : values.get(tag.getValue());
+                if (ids != null) {
+                    ids.remove(workerId);
+                }
+            }
+        }
+
+        private static List<WorkerExecutor> executors(Worker worker) {
+            return worker.getExecutors() == null ? Collections.emptyList() : worker.getExecutors();
+        }
+
+        private static List<Tag> tags(Worker worker) {
+            return worker.getTags() == null ? Collections.emptyList() : worker.getTags();
+        }
+    }
+
+}
@@ -16,9 +16,9 @@
 
 package io.fluxion.server.core.workflow;
 
-import io.fluxion.common.thread.CommonThreadPool;
 import io.fluxion.common.utils.time.TimeUtils;
 import io.fluxion.remote.core.constants.JobStatus;
+import io.fluxion.server.core.broker.BrokerContext;
 import io.fluxion.server.core.context.RunContext;
 import io.fluxion.server.core.execution.Executable;
 import io.fluxion.server.core.execution.ExecutableType;
@@ -37,12 +37,16 @@ import io.fluxion.server.core.workflow.node.EndNode;
 import io.fluxion.server.core.workflow.node.ExecutorNode;
 import io.fluxion.server.core.workflow.node.StartNode;
 import io.fluxion.server.core.workflow.node.WorkflowNode;
-import io.fluxion.server.infrastructure.concurrent.LoggingTask;
 import io.fluxion.server.infrastructure.cqrs.Cmd;
 import io.fluxion.server.infrastructure.cqrs.Query;
 import io.fluxion.server.infrastructure.dag.DAG;
+import io.fluxion.server.infrastructure.dao.tx.TX;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -58,6 +62,11 @@ import java.util.stream.Collectors;
 @Slf4j
 public class Workflow implements Executable {
 
+    /**
+     * 挂起当前事务 不在事务中执行
+     */
+    private static final TransactionDefinition NOT_SUPPORTED = new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+
     private String id;
 
     private String version;
@@ -157,9 +166,27 @@ public class Workflow implements Executable {
             .collect(Collectors.toList());
         // 保存数据
         Cmd.send(new JobsCreateCmd(jobs));
-        // 执行
+        // 执行 在事务中时提交后再下发，避免版本冲突回滚后任务仍被执行
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // 已提交的事务此时仍绑定在线程上，线程池满时任务会在当前线程执行，挂起后内部的写入使用新的事务
+                    TX.transactional(() -> runJobs(jobs), NOT_SUPPORTED);
+                }
+            });
+        } else {
+            runJobs(jobs);
+        }
+    }
+
+    private void runJobs(List<Job> jobs) {
         for (Job job : jobs) {
-            CommonThreadPool.IO.submit(new LoggingTask(() -> Cmd.send(new JobRunCmd(job))));
+            Cmd.asyncSend(new JobRunCmd(job), BrokerContext.broker().pipelineExecutor()).whenComplete((v, e) -> {
+                if (e != null) {
+                    log.error("JobRunCmd fail jobId:{}", job.getJobId(), e);
+                }
+            });
         }
     }
 
@@ -16,6 +16,9 @@
 
 package io.fluxion.server.core.workflow.service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import io.fluxion.common.utils.json.JacksonUtils;
 import io.fluxion.server.core.workflow.Workflow;
 import io.fluxion.server.core.workflow.WorkflowConfig;
@@ -39,6 +42,16 @@ import javax.annotation.Resource;
 @Service
 public class WorkflowQueryService {
 
+    private static final int WORKFLOW_CACHE_SIZE = 10000;
+
+    /**
+     * 版本 -> 已构建 DAG 的 Workflow，Workflow 无运行状态，可以在多个 execution 间共享
+     */
+    private static final Cache<Version.ID, Workflow> WORKFLOW_CACHE = CacheBuilder.newBuilder()
+        .maximumSize(WORKFLOW_CACHE_SIZE)
+        .recordStats()
+        .build();
+
     @Resource
     private WorkflowEntityRepo workflowEntityRepo;
 
@@ -60,16 +73,31 @@ public class WorkflowQueryService {
                 vs = StringUtils.isBlank(entity.getPublishVersion()) ? entity.getDraftVersion() : entity.getPublishVersion();
             }
         }
-        Version version = Query.query(
-            new VersionByIdQuery(WorkflowEntityConverter.versionId(entity.getWorkflowId(), vs))
-        ).getVersion();
+        Version.ID versionId = WorkflowEntityConverter.versionId(entity.getWorkflowId(), vs);
+        // 草稿版本会被覆盖，其余版本发布后不再变化
+        boolean cacheable = StringUtils.isNotBlank(vs) && !vs.equals(entity.getDraftVersion());
+        Workflow workflow = cacheable ? WORKFLOW_CACHE.getIfPresent(versionId) : null;
+        if (workflow != null) {
+            return new WorkflowByIdQuery.Response(workflow);
+        }
+        Version version = Query.query(new VersionByIdQuery(versionId)).getVersion();
         WorkflowConfig workflowConfig = null;
         if (version != null) {
             workflowConfig = JacksonUtils.toType(version.getConfig(), WorkflowConfig.class);
         }
-        Workflow workflow = Workflow.of(entity.getWorkflowId(), vs, workflowConfig);
+        workflow = Workflow.of(entity.getWorkflowId(), vs, workflowConfig);
+        if (cacheable && version != null) {
+            WORKFLOW_CACHE.put(versionId, workflow);
+        }
         return new WorkflowByIdQuery.Response(workflow);
     }
 
+    /**
+     * 缓存命中/未命中/淘汰统计
+     */
+    public static CacheStats workflowCacheStats() {
+        return WORKFLOW_CACHE.stats();
+    }
+
 
 }
@@ -25,6 +25,7 @@ import org.springframework.context.ApplicationContextAware;
 import org.springframework.stereotype.Component;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * @author Devil
@@ -36,7 +37,18 @@ public class Cmd implements ApplicationContextAware {
 
     private static CommandGateway GATEWAY;
 
+    private static volatile DirectDispatcher DIRECT;
+
     public static <R, T extends ICmd<R>> R send(T cmd) {
+        DirectDispatcher direct = DIRECT;
+        if (direct != null && direct.supports(cmd.getClass())) {
+            try {
+                return direct.dispatch(cmd);
+            } catch (RuntimeException e) {
+                log.error("Cmd handle error cmd:{}", JacksonUtils.toJSONString(cmd), e);
+                throw e;
+            }
+        }
         CompletableFuture<R> future = asyncSend(cmd);
         try {
             return future.get();
@@ -50,6 +62,17 @@ public class Cmd implements ApplicationContextAware {
         return GATEWAY.send(cmd);
     }
 
+    /**
+     * 在指定线程池中处理，调用线程不阻塞，用于组合异步流程
+     */
+    public static <R, T extends ICmd<R>> CompletableFuture<R> asyncSend(T cmd, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> send(cmd), executor);
+    }
+
+    static void direct(DirectDispatcher dispatcher) {
+        DIRECT = dispatcher;
+    }
+
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
         GATEWAY = applicationContext.getBean(CommandGateway.class);
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.server.infrastructure.cqrs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.commandhandling.CommandHandler;
+import org.axonframework.queryhandling.QueryHandler;
+import org.springframework.aop.support.AopUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内直接分发 Cmd/Query
+ * 启动时将 {@link DirectDispatch} 标记类中的 {@link CommandHandler}/{@link QueryHandler} 方法解析为 MethodHandle，按消息类型索引，
+ * 调用时跳过 Axon 的拦截器、UnitOfWork 和处理器查找。
+ * 注册的对象为 Spring 代理时通过代理调用，事务等切面仍然生效。
+ *
+ * @author Devil
+ */
+@Slf4j
+public class DirectDispatcher {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final Map<Class<?>, MethodHandle> handlers = new ConcurrentHashMap<>();
+
+    /**
+     * 同一消息类型存在多个处理器，交给 Axon 处理
+     */
+    private final Set<Class<?>> conflicts = new HashSet<>();
+
+    /**
+     * 注册对象中的处理器方法
+     */
+    public synchronized void register(Object bean) {
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        if (!targetClass.isAnnotationPresent(DirectDispatch.class)) {
+            return;
+        }
+        if (!targetClass.isInstance(bean)) {
+            // 接口代理无法绑定实现类方法，交给 Axon 处理
+            return;
+        }
+        for (Method method : targetClass.getMethods()) {
+            if (!method.isAnnotationPresent(CommandHandler.class) && !method.isAnnotationPresent(QueryHandler.class)) {
+                continue;
+            }
+            if (method.getParameterCount() != 1) {
+                continue;
+            }
+            Class<?> messageType = method.getParameterTypes()[0];
+            if (conflicts.contains(messageType)) {
+                continue;
+            }
+            if (handlers.containsKey(messageType)) {
+                log.warn("[DirectDispatcher] multiple handlers for {}, dispatch by axon", messageType.getName());
+                handlers.remove(messageType);
+                conflicts.add(messageType);
+                continue;
+            }
+            try {
+                MethodHandle handle = MethodHandles.publicLookup().unreflect(method).bindTo(bean).asType(INVOKER_TYPE);
+                handlers.put(messageType, handle);
+            } catch (IllegalAccessException e) {
+                log.warn("[DirectDispatcher] can't access handler {}, dispatch by axon", method, e);
+            }
+        }
+    }
+
+    /**
+     * 是否可以直接分发
+     */
+    public boolean supports(Class<?> messageType) {
+        return handlers.containsKey(messageType);
+    }
+
+    /**
+     * 直接调用处理器
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R dispatch(Object message) {
+        MethodHandle handle = handlers.get(message.getClass());
+        if (handle == null) {
+            throw new IllegalStateException("no handler for " + message.getClass().getName());
+        }
+        try {
+            return (R) handle.invokeExact(message);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public int size() {
+        return handlers.size();
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.server.infrastructure.cqrs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 所有单例初始化完成后注册 {@link DirectDispatch} 标记的处理器，开启 Cmd/Query 直接分发
+ *
+ * @author Devil
+ */
+@Slf4j
+@Component
+public class DirectDispatcherRegistrar implements SmartInitializingSingleton {
+
+    /**
+     * 关闭后全部经过 Axon
+     */
+    @Value("${fluxion.cqrs.direct-dispatch:true}")
+    private boolean enabled;
+
+    @Resource
+    private ApplicationContext applicationContext;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        DirectDispatcher dispatcher = new DirectDispatcher();
+        for (String name : applicationContext.getBeanDefinitionNames()) {
+            Class<?> type = applicationContext.getType(name);
+            if (type == null || !applicationContext.isSingleton(name) || !type.getName().startsWith("io.fluxion")) {
+                continue;
+            }
+            Object bean = applicationContext.getBean(name);
+            if (AopUtils.getTargetClass(bean).getName().startsWith("io.fluxion")) {
+                dispatcher.register(bean);
+            }
+        }
+        Cmd.direct(dispatcher);
+        Query.direct(dispatcher);
+        log.info("[DirectDispatcher] registered {} handlers", dispatcher.size());
+    }
+
+}
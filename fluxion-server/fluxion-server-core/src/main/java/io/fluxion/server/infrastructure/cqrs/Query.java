@@ -37,8 +37,19 @@ public class Query implements ApplicationContextAware {
 
     private static QueryGateway GATEWAY;
 
+    private static volatile DirectDispatcher DIRECT;
+
     @SuppressWarnings("unchecked")
     public static <R, Q extends IQuery<R>> R query(Q query) {
+        DirectDispatcher direct = DIRECT;
+        if (direct != null && direct.supports(query.getClass())) {
+            try {
+                return direct.dispatch(query);
+            } catch (RuntimeException e) {
+                log.error("Query handle error query:{}", JacksonUtils.toJSONString(query), e);
+                throw e;
+            }
+        }
         // 通过 query 的泛型类型推断 R
         Class<R> responseType = ReflectionUtils.refType(query);
         CompletableFuture<R> future = GATEWAY.query(query, responseType);
@@ -54,6 +65,10 @@ public class Query implements ApplicationContextAware {
         return GATEWAY.query(query, responseType);
     }
 
+    static void direct(DirectDispatcher dispatcher) {
+        DIRECT = dispatcher;
+    }
+
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
         GATEWAY = applicationContext.getBean(QueryGateway.class);
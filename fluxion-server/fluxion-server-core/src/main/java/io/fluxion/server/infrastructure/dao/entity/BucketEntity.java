@@ -44,6 +44,21 @@ public class BucketEntity extends BaseEntity {
 
     private String brokerId;
 
+    /**
+     * 待接管的 broker，接管方预加载完成后转为 brokerId
+     */
+    private String handoffBrokerId;
+
+    /**
+     * 每秒触发次数 由负责的节点定期上报
+     */
+    private Double fireRate;
+
+    /**
+     * 即将到期未触发的延迟任务数
+     */
+    private Integer backlog;
+
     @Override
     public Object getUid() {
         return bucket;
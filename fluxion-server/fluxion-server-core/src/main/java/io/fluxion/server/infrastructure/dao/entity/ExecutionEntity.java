@@ -76,6 +76,11 @@ public class ExecutionEntity extends BaseEntity {
      */
     private String status;
 
+    /**
+     * 每次状态变更递增，用于 CAS
+     */
+    private Long version;
+
     /**
      * 期望的调度触发时间
      */
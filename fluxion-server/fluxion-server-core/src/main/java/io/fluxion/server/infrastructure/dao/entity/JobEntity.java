@@ -67,6 +67,11 @@ public class JobEntity extends BaseEntity {
      */
     private String status;
 
+    /**
+     * 每次状态变更递增，用于 CAS
+     */
+    private Long version;
+
     /**
      * 应该触发的时间
      */
@@ -63,6 +63,11 @@ public class LockEntity extends BaseEntity {
      */
     private LocalDateTime expireAt;
 
+    /**
+     * fencing token 每次获取锁递增
+     */
+    private Long token;
+
 
     @Override
     public Object getUid() {
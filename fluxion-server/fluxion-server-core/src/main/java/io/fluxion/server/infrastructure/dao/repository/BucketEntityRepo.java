@@ -18,6 +18,9 @@ package io.fluxion.server.infrastructure.dao.repository;
 
 import io.fluxion.server.infrastructure.dao.entity.BucketEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -28,4 +31,21 @@ import java.util.List;
 public interface BucketEntityRepo extends JpaRepository<BucketEntity, Integer> {
 
     List<BucketEntity> findByBrokerId(String brokerId);
+
+    List<BucketEntity> findByHandoffBrokerId(String handoffBrokerId);
+
+    /**
+     * 接管 bucket 只有仍是待接管方时才成功
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "update BucketEntity e set e.brokerId = :brokerId, e.handoffBrokerId = null where e.bucket = :bucket and e.handoffBrokerId = :brokerId")
+    int takeOver(@Param("bucket") Integer bucket, @Param("brokerId") String brokerId);
+
+    /**
+     * 上报 bucket 负载 只更新仍归属于当前节点的
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "update BucketEntity e set e.fireRate = :fireRate, e.backlog = :backlog where e.bucket = :bucket and e.brokerId = :brokerId")
+    int reportLoad(@Param("bucket") Integer bucket, @Param("brokerId") String brokerId,
+                   @Param("fireRate") Double fireRate, @Param("backlog") Integer backlog);
 }
@@ -19,9 +19,14 @@ package io.fluxion.server.infrastructure.dao.repository;
 import io.fluxion.server.infrastructure.dao.entity.ExecutionEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * @author Devil
@@ -30,4 +35,13 @@ import java.time.LocalDateTime;
 public interface ExecutionEntityRepo extends JpaRepository<ExecutionEntity, String>, JpaSpecificationExecutor<ExecutionEntity> {
 
     ExecutionEntity findByExecutableIdAndExecutableTypeAndTriggerAt(String executableId, String executableType, LocalDateTime triggerAt);
+
+    List<ExecutionEntity> findByExecutableIdInAndTriggerAtIn(Collection<String> executableIds, Collection<LocalDateTime> triggerAts);
+
+    /**
+     * 递增版本 同时持有行锁直到事务结束
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "update ExecutionEntity e set e.version = e.version + 1 where e.executionId = :executionId")
+    int lockVersion(@Param("executionId") String executionId);
 }
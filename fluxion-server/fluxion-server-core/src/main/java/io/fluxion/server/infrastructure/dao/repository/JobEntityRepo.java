@@ -18,9 +18,12 @@ package io.fluxion.server.infrastructure.dao.repository;
 
 import io.fluxion.server.infrastructure.dao.entity.JobEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
+import java.util.List;
 
 /**
  * @author Devil
@@ -30,5 +33,11 @@ public interface JobEntityRepo extends JpaRepository<JobEntity, String> {
 
     JobEntity findByExecutionIdAndRefIdAndJobType(String executionId, String refId, String jobType);
 
+    /**
+     * 批量查询已存在的 executionId refId jobType，结果为两个集合的笛卡尔积范围，需要调用方再按组合过滤
+     */
+    @Query(value = "select e.executionId, e.refId, e.jobType from JobEntity e where e.executionId in :executionIds and e.refId in :refIds")
+    List<Object[]> findKeys(@Param("executionIds") Collection<String> executionIds, @Param("refIds") Collection<String> refIds);
+
     long countByExecutionIdAndRefIdInAndStatusIn(String executionId, Collection<String> refIds, Collection<String> statuses);
 }
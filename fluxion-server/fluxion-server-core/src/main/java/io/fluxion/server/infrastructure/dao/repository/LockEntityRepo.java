@@ -18,6 +18,13 @@ package io.fluxion.server.infrastructure.dao.repository;
 
 import io.fluxion.server.infrastructure.dao.entity.LockEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
 
 /**
  * @author Devil
@@ -27,5 +34,37 @@ public interface LockEntityRepo extends JpaRepository<LockEntity, String> {
 
     LockEntity findByName(String name);
 
-    int deleteByNameAndOwner(String name, String owner);
+    /**
+     * 锁定记录直到事务结束 用于校验 fencing token
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "select e from LockEntity e where e.name = :name")
+    LockEntity findLockedByName(@Param("name") String name);
+
+    /**
+     * 按持有者释放 清空持有者并置为过期，保留记录及 token
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "update LockEntity e set e.owner = '', e.expireAt = :now where e.name = :name and e.owner = :owner")
+    int unlock(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    /**
+     * 锁已过期或者自己持有时获取，同时递增 token
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "update LockEntity e set e.owner = :owner, e.expireAt = :expireAt, e.token = e.token + 1 " +
+        "where e.name = :name and (e.expireAt < :now or e.owner = :owner)")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("expireAt") LocalDateTime expireAt, @Param("now") LocalDateTime now);
+
+    @Query(value = "select e.token from LockEntity e where e.name = :name and e.owner = :owner")
+    Long findToken(@Param("name") String name, @Param("owner") String owner);
+
+    /**
+     * 释放租约 保留记录供下次复用，token 不一致说明已被其他持有者获取
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "update LockEntity e set e.expireAt = :now where e.name = :name and e.owner = :owner and e.token = :token")
+    int release(@Param("name") String name, @Param("owner") String owner,
+                @Param("token") Long token, @Param("now") LocalDateTime now);
 }
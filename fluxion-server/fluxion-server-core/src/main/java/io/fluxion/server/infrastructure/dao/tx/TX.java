@@ -20,6 +20,7 @@ import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
 
 import java.util.function.Supplier;
 
@@ -46,6 +47,10 @@ public class TX implements ApplicationContextAware {
         transactionService.transactional(runnable);
     }
 
+    public static void transactional(Runnable runnable, TransactionDefinition transactionDefinition) {
+        transactionService.transactional(runnable, transactionDefinition);
+    }
+
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
         transactionService = applicationContext.getBean(TransactionService.class);
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.server.infrastructure.id.cmd;
+
+import io.fluxion.server.infrastructure.cqrs.ICmd;
+import io.fluxion.server.infrastructure.id.data.IDType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一次获取连续的多个 ID
+ *
+ * @author Devil
+ */
+@Getter
+@AllArgsConstructor
+public class IDRangeGenerateCmd implements ICmd<IDRangeGenerateCmd.Response> {
+
+    private final IDType type;
+
+    private final int num;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Response {
+        /**
+         * 第一个 ID
+         */
+        private long startId;
+
+        private int num;
+
+        public List<String> ids() {
+            List<String> ids = new ArrayList<>(num);
+            for (int i = 0; i < num; i++) {
+                ids.add(String.valueOf(startId + i));
+            }
+            return ids;
+        }
+    }
+}
@@ -16,22 +16,25 @@
 
 package io.fluxion.server.infrastructure.id.service;
 
+import io.fluxion.common.thread.NamedThreadFactory;
 import io.fluxion.server.infrastructure.dao.entity.IdEntity;
 import io.fluxion.server.infrastructure.dao.repository.IdEntityRepo;
 import io.fluxion.server.infrastructure.id.cmd.IDGenerateCmd;
+import io.fluxion.server.infrastructure.id.cmd.IDRangeGenerateCmd;
 import io.fluxion.server.infrastructure.id.data.IDType;
-import lombok.AllArgsConstructor;
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.axonframework.commandhandling.CommandHandler;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * @author Devil
@@ -40,16 +43,36 @@ import java.util.concurrent.atomic.AtomicLong;
 @Service
 public class IDCommandService {
 
-    private static final Map<IDType, ID> ID_MAP = new ConcurrentHashMap<>();
+    private static final Map<IDType, IDSegmentBuffer> BUFFERS = new ConcurrentHashMap<>();
+
+    /**
+     * CAS 失败说明号段被其他节点取走，立即重新读取
+     */
+    private static final int MAX_CAS_TIMES = 10;
+
+    /**
+     * 号段加载线程池，每种类型同时最多一个加载任务
+     */
+    private final ExecutorService segmentLoader = Executors.newCachedThreadPool(
+        NamedThreadFactory.newInstance("FluxionIdSegmentLoader")
+    );
 
     @Resource
     private IdEntityRepo idEntityRepo;
 
-    @Transactional
     @CommandHandler
     public IDGenerateCmd.Response handle(IDGenerateCmd cmd) {
-        Long autoIncrId = gainRandomAutoId(cmd.getType());
-        return new IDGenerateCmd.Response(String.valueOf(autoIncrId));
+        long id = buffer(cmd.getType()).next();
+        return new IDGenerateCmd.Response(String.valueOf(id));
+    }
+
+    @CommandHandler
+    public IDRangeGenerateCmd.Response handle(IDRangeGenerateCmd cmd) {
+        if (cmd.getNum() <= 0) {
+            return new IDRangeGenerateCmd.Response(0, 0);
+        }
+        long startId = buffer(cmd.getType()).next(cmd.getNum());
+        return new IDRangeGenerateCmd.Response(startId, cmd.getNum());
     }
 
     /**
@@ -71,58 +94,40 @@ public class IDCommandService {
         }
     }
 
-    private Long gainRandomAutoId(final IDType type) {
-        synchronized (type) {
-            ID id = ID_MAP.get(type);
-            if (id == null || !id.valid()) {
-                id = getNewId(type);
-            }
-            return id.getCurrentId().incrementAndGet();
-        }
+    @PreDestroy
+    public void destroy() {
+        segmentLoader.shutdown();
     }
 
-    private ID getNewId(IDType type) {
-        String typeName = type.name();
-
-        int updateNum = 0; // 更新库存的条数
-        int time = 0; // 重试次数
-
-        long startId = 0;
-        long endId = 0;
-
-        while (updateNum <= 0 && time < 10) {
-            try {
-                // 加锁 获取 类型
-                IdEntity idEntity = idEntityRepo.findById(typeName).orElse(null);
-                startId = idEntity.getCurrentId();
-                endId = idEntity.getCurrentId() + idEntity.getStep();
-                updateNum = idEntityRepo.casGainId(typeName, endId, startId);
-                Thread.sleep(200);
-            } catch (InterruptedException e) {
-                log.error("thread sleep fail", e);
-                Thread.currentThread().interrupt();
-            }
-            time++;
-        }
-
-        if (updateNum <= 0) {
-            throw new IllegalStateException("The system is busy, Try again later!!!");
-        }
-
-        ID id = new ID(new AtomicLong(startId), endId);
-        ID_MAP.put(type, id);
-        return id;
+    public static Map<IDType, IDSegmentBuffer> segmentBuffers() {
+        return Collections.unmodifiableMap(BUFFERS);
     }
 
-    @Getter
-    @AllArgsConstructor
-    private static class ID {
-        private AtomicLong currentId;
-
-        private Long endId;
+    private IDSegmentBuffer buffer(IDType type) {
+        return BUFFERS.computeIfAbsent(type, t -> {
+            IdEntity idEntity = idEntityRepo.findById(t.name())
+                .orElseThrow(() -> new IllegalStateException("id type not registered type:" + t));
+            return new IDSegmentBuffer(idEntity.getStep(), step -> loadSegment(t, step), segmentLoader);
+        });
+    }
 
-        public boolean valid() {
-            return currentId.get() < endId;
+    /**
+     * 从数据库获取号段 步长不小于配置值
+     * 在加载线程中执行，不参与调用方事务，每次读取到的都是最新值
+     */
+    private IDSegmentBuffer.Segment loadSegment(IDType type, int step) {
+        String typeName = type.name();
+        for (int time = 0; time < MAX_CAS_TIMES; time++) {
+            IdEntity idEntity = idEntityRepo.findById(typeName)
+                .orElseThrow(() -> new IllegalStateException("id type not registered type:" + typeName));
+            long startId = idEntity.getCurrentId();
+            long endId = startId + Math.max(step, idEntity.getStep());
+            if (idEntityRepo.casGainId(typeName, endId, startId) > 0) {
+                return new IDSegmentBuffer.Segment(startId, endId);
+            }
         }
+        log.warn("gain id segment fail type:{} step:{}", typeName, step);
+        throw new IllegalStateException("The system is busy, Try again later!!!");
     }
+
 }
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.server.infrastructure.id.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * 双缓冲号段
+ * 当前号段使用到一定比例时异步加载下一个号段，用完后直接切换，取号线程一般不需要等待数据库。
+ * 步长根据消耗速度调整，使一个号段大致可以使用 {@link #TARGET_SEGMENT_MS}。
+ *
+ * @author Devil
+ */
+public class IDSegmentBuffer {
+
+    /**
+     * 期望单个号段的使用时长
+     */
+    static final long TARGET_SEGMENT_MS = 60_000;
+
+    /**
+     * 号段使用比例达到后预加载下一个号段
+     */
+    static final double PREFETCH_RATIO = 0.2;
+
+    static final int MAX_STEP = 100_000;
+
+    /**
+     * 加载号段 入参为期望步长
+     */
+    private final IntFunction<Segment> loader;
+
+    private final Executor executor;
+
+    /**
+     * 当前时间 毫秒
+     */
+    private final LongSupplier clock;
+
+    private final int minStep;
+
+    private volatile int step;
+
+    private volatile Segment current;
+
+    private volatile CompletableFuture<Segment> nextSegment;
+
+    private final LongAdder loads = new LongAdder();
+
+    private final LongAdder waits = new LongAdder();
+
+    private final LongAdder waitNanos = new LongAdder();
+
+    private volatile long maxWaitMs;
+
+    public IDSegmentBuffer(int step, IntFunction<Segment> loader, Executor executor) {
+        this(step, loader, executor, System::currentTimeMillis);
+    }
+
+    public IDSegmentBuffer(int step, IntFunction<Segment> loader, Executor executor, LongSupplier clock) {
+        this.minStep = step;
+        this.step = step;
+        this.loader = loader;
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    /**
+     * 获取下一个 ID
+     */
+    public long next() {
+        while (true) {
+            Segment segment = current;
+            if (segment != null) {
+                long id = segment.cursor.incrementAndGet();
+                if (id <= segment.end) {
+                    if (id >= segment.prefetchAt && nextSegment == null) {
+                        prefetch(segment);
+                    }
+                    return id;
+                }
+            }
+            switchSegment(segment);
+        }
+    }
+
+    /**
+     * 获取连续的 num 个 ID 返回第一个
+     * 当前号段剩余不足时剩余部分作废；超过号段大小时单独申请一个号段
+     */
+    public long next(int num) {
+        if (num <= 1) {
+            return next();
+        }
+        while (true) {
+            Segment segment = current;
+            if (segment != null) {
+                if (num > segment.end - segment.start) {
+                    return exclusive(num);
+                }
+                long last = segment.cursor.addAndGet(num);
+                if (last <= segment.end) {
+                    if (last >= segment.prefetchAt && nextSegment == null) {
+                        prefetch(segment);
+                    }
+                    return last - num + 1;
+                }
+            } else if (num > step) {
+                return exclusive(num);
+            }
+            switchSegment(segment);
+        }
+    }
+
+    /**
+     * 单独申请一个号段
+     */
+    private long exclusive(int num) {
+        long waitStart = System.nanoTime();
+        loads.increment();
+        try {
+            return CompletableFuture.supplyAsync(() -> loader.apply(num), executor).join().start + 1;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        } finally {
+            recordWait(System.nanoTime() - waitStart);
+        }
+    }
+
+    private void prefetch(Segment segment) {
+        synchronized (this) {
+            if (nextSegment == null && current == segment) {
+                nextSegment = load(segment);
+            }
+        }
+    }
+
+    private synchronized void switchSegment(Segment exhausted) {
+        if (current != exhausted) {
+            // 其他线程已经切换
+            return;
+        }
+        if (nextSegment == null) {
+            nextSegment = load(exhausted);
+        }
+        CompletableFuture<Segment> future = nextSegment;
+        long waitStart = future.isDone() ? 0 : System.nanoTime();
+        try {
+            Segment segment = future.join();
+            // 预加载的号段可能放置了一段时间 从切换开始计算使用时长
+            segment.activatedAt = clock.getAsLong();
+            current = segment;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        } finally {
+            nextSegment = null;
+            if (waitStart > 0) {
+                recordWait(System.nanoTime() - waitStart);
+            }
+        }
+    }
+
+    private CompletableFuture<Segment> load(Segment previous) {
+        int nextStep = adjustStep(previous);
+        loads.increment();
+        return CompletableFuture.supplyAsync(() -> loader.apply(nextStep), executor);
+    }
+
+    /**
+     * 根据上一个号段的消耗速度计算步长，单次最多翻倍或减半
+     */
+    private int adjustStep(Segment previous) {
+        if (previous == null) {
+            return step;
+        }
+        long used = Math.min(previous.cursor.get(), previous.end) - previous.start;
+        long elapsed = Math.max(1, clock.getAsLong() - previous.activatedAt);
+        long desired = used * TARGET_SEGMENT_MS / elapsed;
+        long next = Math.max(step / 2, Math.min((long) step * 2, desired));
+        step = (int) Math.max(minStep, Math.min(MAX_STEP, next));
+        return step;
+    }
+
+    private void recordWait(long nanos) {
+        waits.increment();
+        waitNanos.add(nanos);
+        long ms = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (ms > maxWaitMs) {
+            maxWaitMs = ms;
+        }
+    }
+
+    public int step() {
+        return step;
+    }
+
+    public long loads() {
+        return loads.sum();
+    }
+
+    /**
+     * 取号时等待号段加载的次数
+     */
+    public long waits() {
+        return waits.sum();
+    }
+
+    public long waitMs() {
+        return TimeUnit.NANOSECONDS.toMillis(waitNanos.sum());
+    }
+
+    public long maxWaitMs() {
+        return maxWaitMs;
+    }
+
+    /**
+     * 号段 可用 ID 为 (start, end]
+     */
+    public static class Segment {
+
+        private final long start;
+
+        private final long end;
+
+        private final long prefetchAt;
+
+        /**
+         * 开始使用的时间
+         */
+        private volatile long activatedAt;
+
+        private final AtomicLong cursor;
+
+        public Segment(long start, long end) {
+            this.start = start;
+            this.end = end;
+            this.prefetchAt = start + Math.max(1, (long) ((end - start) * PREFETCH_RATIO));
+            this.cursor = new AtomicLong(start);
+        }
+
+    }
+
+}
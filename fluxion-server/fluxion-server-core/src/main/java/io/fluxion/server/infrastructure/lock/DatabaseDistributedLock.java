@@ -26,12 +26,23 @@ import io.fluxion.server.infrastructure.exception.PlatformException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
 
 import javax.annotation.Resource;
+import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
+ * 基于数据库的租约锁
+ * 先获取本地分段锁，同节点的竞争在本地排队，只有跨节点竞争才会轮询数据库。
+ * 获取锁为一次条件更新并递增 fencing token，释放时只将租约置为过期，记录保留复用。
+ *
  * @author Devil
  * @since 2024/1/14
  */
@@ -39,6 +50,19 @@ import java.util.function.Supplier;
 @Component
 public class DatabaseDistributedLock implements DistributedLock {
 
+    private static final int LOCAL_STRIPES = 1024;
+
+    private static final long RETRY_INTERVAL_MS = 50;
+
+    /**
+     * 租约的读写在独立事务中，不受调用方事务影响，提交后对其他节点立即可见
+     */
+    private static final TransactionDefinition REQUIRES_NEW = new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+    private final StripedLock localLocks = new StripedLock(LOCAL_STRIPES);
+
+    private final LockStats stats = new LockStats();
+
     @Resource
     private LockEntityRepo lockEntityRepo;
 
@@ -47,70 +71,161 @@ public class DatabaseDistributedLock implements DistributedLock {
 
     @Override
     public <T> T lock(String name, long expire, long wait, Supplier<T> supplier) {
+        return lock(name, expire, wait, lease -> supplier.get());
+    }
+
+    @Override
+    public <T> T lock(String name, long expire, long wait, Function<Lease, T> action) {
         long endTime = System.currentTimeMillis() + wait;
-        boolean locked = false;
+        ReentrantLock localLock = localLocks.get(name);
+        if (!lockLocal(localLock, wait)) {
+            stats.recordFailed();
+            throw new PlatformException(ErrorCode.SYSTEM_ERROR, "[DistributedLock] get local lock " + name + " failed");
+        }
+        try {
+            Lease lease = acquire(name, expire, endTime);
+            if (lease == null) {
+                stats.recordFailed();
+                throw new PlatformException(ErrorCode.SYSTEM_ERROR, "[DistributedLock] get lock " + name + " failed");
+            }
+            stats.recordAcquired();
+            try {
+                return action.apply(lease);
+            } finally {
+                release(lease);
+            }
+        } finally {
+            localLock.unlock();
+        }
+    }
+
+    private boolean lockLocal(ReentrantLock localLock, long wait) {
+        if (localLock.tryLock()) {
+            return true;
+        }
+        long start = System.nanoTime();
+        try {
+            return localLock.tryLock(Math.max(0, wait), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            stats.recordLocalWait(System.nanoTime() - start);
+        }
+    }
+
+    private Lease acquire(String name, long expire, long endTime) {
+        long start = System.nanoTime();
+        boolean contended = false;
         try {
             do {
-                if (tryLock(name, expire)) {
-                    locked = true;
-                    break;
+                Lease lease = tryAcquire(name, expire);
+                if (lease != null) {
+                    return lease;
                 }
-                Thread.sleep(50);
+                contended = true;
+                Thread.sleep(RETRY_INTERVAL_MS);
             } while (System.currentTimeMillis() < endTime);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             log.error("[DistributedLock] lock error name:{}", name, e);
-        }
-        if (!locked) {
-            throw new PlatformException(ErrorCode.SYSTEM_ERROR, "[DistributedLock] get lock " + name + " failed");
-        }
-        try {
-            return supplier.get();
         } finally {
-            unlock(name);
+            if (contended) {
+                stats.recordRemoteWait(System.nanoTime() - start);
+            }
         }
+        return null;
     }
 
     @Override
     public boolean tryLock(String name, long expire) {
-        LockEntity lock = lockEntityRepo.findByName(name);
+        return tryAcquire(name, expire) != null;
+    }
 
+    @Override
+    public Lease tryAcquire(String name, long expire) {
         // 防止同节点并发问题
-        String current = owner();
+        String owner = owner();
+        LocalDateTime now = TimeUtils.currentLocalDateTime();
+        LocalDateTime expireAt = now.plus(expire, ChronoUnit.MILLIS);
+        long expireAtMillis = System.currentTimeMillis() + expire;
 
-        // 如果锁未过期且当前节点非加锁节点，加锁失败
-        if (lock != null && lock.getExpireAt().isBefore(TimeUtils.currentLocalDateTime()) && !lock.getOwner().equals(current)) {
-            return false;
+        // 锁已过期或者自己持有
+        Long token = transactionService.transactional(() -> {
+            if (lockEntityRepo.acquire(name, owner, expireAt, now) > 0) {
+                return lockEntityRepo.findToken(name, owner);
+            }
+            return null;
+        }, REQUIRES_NEW);
+        if (token != null) {
+            return new Lease(name, owner, token, expireAtMillis);
         }
-        if (lock == null) {
-            lock = new LockEntity();
+        if (lockEntityRepo.findByName(name) != null) {
+            // 被其他持有者占用且未过期
+            return null;
         }
+
+        // 首次加锁 由唯一索引保证只有一个成功
+        LockEntity lock = new LockEntity();
         lock.setName(name);
-        lock.setOwner(current);
-        lock.setExpireAt(TimeUtils.currentLocalDateTime().plus(expire, ChronoUnit.MILLIS));
-        return dbLock(lock);
+        lock.setOwner(owner);
+        lock.setExpireAt(expireAt);
+        lock.setToken(1L);
+        try {
+            transactionService.transactional(() -> lockEntityRepo.saveAndFlush(lock), REQUIRES_NEW);
+            return new Lease(name, owner, 1L, expireAtMillis);
+        } catch (DataIntegrityViolationException dive) {
+            // 数据重复
+            return null;
+        } catch (Exception e) {
+            log.warn("[DistributedLock] lock failed, name = {}.", name, e);
+            return null;
+        }
     }
 
     private String owner() {
         return BrokerContext.broker().id() + "_" + Thread.currentThread().getId();
     }
 
-    private boolean dbLock(LockEntity lock) {
-        return transactionService.transactional(() -> {
-            try {
-                lockEntityRepo.saveAndFlush(lock);
-                return true;
-            } catch (DataIntegrityViolationException dive) {
-                // 数据重复
-                return false;
-            } catch (Exception e) {
-                log.warn("[DistributedLock] lock failed, name = {}.", lock.getName(), e);
-                return false;
+    @Override
+    public boolean unlock(String name) {
+        // 不删除记录 重新获取时 token 继续递增
+        return transactionService.transactional(() -> lockEntityRepo.unlock(
+            name, owner(), TimeUtils.currentLocalDateTime()
+        ) > 0, REQUIRES_NEW);
+    }
+
+    @Override
+    public boolean release(Lease lease) {
+        try {
+            boolean released = transactionService.transactional(() -> lockEntityRepo.release(
+                lease.getName(), lease.getOwner(), lease.getToken(), TimeUtils.currentLocalDateTime()
+            ) > 0, REQUIRES_NEW);
+            if (!released) {
+                stats.recordLeaseLost();
+                log.warn("[DistributedLock] lease lost before release name:{} token:{}", lease.getName(), lease.getToken());
             }
-        });
+            return released;
+        } catch (Exception e) {
+            log.error("[DistributedLock] release error name:{}", lease.getName(), e);
+            return false;
+        }
     }
 
     @Override
-    public boolean unlock(String name) {
-        return transactionService.transactional(() -> lockEntityRepo.deleteByNameAndOwner(name, owner()) > 0);
+    public boolean fence(Lease lease) {
+        LockEntity lock = lockEntityRepo.findLockedByName(lease.getName());
+        boolean held = lock != null && lease.getOwner().equals(lock.getOwner()) && Objects.equals(lock.getToken(), lease.getToken());
+        if (!held) {
+            stats.recordLeaseLost();
+            log.warn("[DistributedLock] fence rejected name:{} token:{}", lease.getName(), lease.getToken());
+        }
+        return held;
+    }
+
+    @Override
+    public LockStats stats() {
+        return stats;
     }
 }
@@ -16,6 +16,7 @@
 
 package io.fluxion.server.infrastructure.lock;
 
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -31,6 +32,14 @@ public interface DistributedLock {
      */
     <T> T lock(String name, long expire, long wait, Supplier<T> supplier);
 
+    /**
+     * 阻塞 直到获取到锁，处理逻辑可以通过租约校验 {@link #fence(Lease)}
+     * @param name 锁名
+     * @param expire 加锁时间/毫秒
+     * @param wait 等待时间
+     */
+    <T> T lock(String name, long expire, long wait, Function<Lease, T> action);
+
     /**
      * 尝试加锁，如果锁被占有返回失败
      * 可重入，已有锁对象可以重复加锁刷新锁的过期时间
@@ -47,4 +56,32 @@ public interface DistributedLock {
      * @param name 锁名
      */
     boolean unlock(String name);
+
+    /**
+     * 尝试获取租约，如果锁被占有返回 null
+     *
+     * @param name   锁名
+     * @param expire 租约时长/毫秒
+     * @return 租约
+     */
+    Lease tryAcquire(String name, long expire);
+
+    /**
+     * 释放租约
+     *
+     * @return 是否成功 失败说明租约已过期并被其他持有者获取
+     */
+    boolean release(Lease lease);
+
+    /**
+     * 在受保护写入的同一事务中调用，锁定锁记录并校验 token，事务结束前其他持有者无法获取
+     *
+     * @return 是否仍持有 失败说明租约已过期并被其他持有者获取，不能再写入
+     */
+    boolean fence(Lease lease);
+
+    /**
+     * 锁竞争统计
+     */
+    LockStats stats();
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.server.infrastructure.lock;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 锁租约
+ *
+ * @author Devil
+ */
+@Getter
+@AllArgsConstructor
+public class Lease {
+
+    private final String name;
+
+    private final String owner;
+
+    /**
+     * fencing token 单调递增，受保护资源可据此拒绝已失效持有者的写入
+     */
+    private final long token;
+
+    /**
+     * 过期时间戳
+     */
+    private final long expireAt;
+
+    public boolean expired() {
+        return System.currentTimeMillis() >= expireAt;
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.server.infrastructure.lock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 锁竞争统计
+ *
+ * @author Devil
+ */
+public class LockStats {
+
+    private final LongAdder acquired = new LongAdder();
+
+    private final LongAdder localContended = new LongAdder();
+
+    private final LongAdder localWaitNanos = new LongAdder();
+
+    private final LongAdder remoteContended = new LongAdder();
+
+    private final LongAdder remoteWaitNanos = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private final LongAdder leaseLost = new LongAdder();
+
+    void recordAcquired() {
+        acquired.increment();
+    }
+
+    /**
+     * 本地锁被同节点其他线程持有
+     */
+    void recordLocalWait(long waitNanos) {
+        localContended.increment();
+        localWaitNanos.add(waitNanos);
+    }
+
+    /**
+     * 数据库租约被其他节点持有
+     */
+    void recordRemoteWait(long waitNanos) {
+        remoteContended.increment();
+        remoteWaitNanos.add(waitNanos);
+    }
+
+    void recordFailed() {
+        failed.increment();
+    }
+
+    /**
+     * 释放时租约已被其他持有者获取
+     */
+    void recordLeaseLost() {
+        leaseLost.increment();
+    }
+
+    public long acquired() {
+        return acquired.sum();
+    }
+
+    public long localContended() {
+        return localContended.sum();
+    }
+
+    public long localWaitMs() {
+        return TimeUnit.NANOSECONDS.toMillis(localWaitNanos.sum());
+    }
+
+    public long remoteContended() {
+        return remoteContended.sum();
+    }
+
+    public long remoteWaitMs() {
+        return TimeUnit.NANOSECONDS.toMillis(remoteWaitNanos.sum());
+    }
+
+    public long failed() {
+        return failed.sum();
+    }
+
+    public long leaseLost() {
+        return leaseLost.sum();
+    }
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.server.infrastructure.lock;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 分段本地锁 按锁名 hash 到固定数量的锁上
+ * 同节点的竞争者在本地排队，不需要轮询数据库
+ *
+ * @author Devil
+ */
+public class StripedLock {
+
+    private final ReentrantLock[] locks;
+
+    public StripedLock(int stripes) {
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public ReentrantLock get(String name) {
+        int hash = name.hashCode();
+        // 扰动低位，避免相近的锁名落到同一段
+        hash ^= hash >>> 16;
+        return locks[(hash & Integer.MAX_VALUE) % locks.length];
+    }
+
+}
@@ -16,6 +16,7 @@
 
 package io.fluxion.server.infrastructure.schedule;
 
+import io.fluxion.common.utils.time.TimeUtils;
 import io.fluxion.server.infrastructure.schedule.calculator.ScheduleCalculatorFactory;
 
 import java.time.LocalDateTime;
@@ -48,18 +49,28 @@ public class BasicCalculation implements Calculable {
      */
     private final LocalDateTime triggerAt;
 
+    /**
+     * 计算结果，执行时间戳 毫秒
+     */
+    private final long triggerAtMillis;
+
     public BasicCalculation(LocalDateTime lastTriggerAt, LocalDateTime lastFeedbackAt,
                             ScheduleOption scheduleOption) {
         this.lastTriggerAt = lastTriggerAt;
         this.lastFeedbackAt = lastFeedbackAt;
         this.scheduleOption = scheduleOption;
         this.triggerAt = ScheduleCalculatorFactory.create(scheduleOption.getType()).calculate(this);
+        this.triggerAtMillis = triggerAt == null ? NO_TRIGGER : TimeUtils.toTimestamp(triggerAt);
     }
 
     public LocalDateTime triggerAt() {
         return triggerAt;
     }
 
+    public long triggerAtMillis() {
+        return triggerAtMillis;
+    }
+
     @Override
     public ScheduleOption scheduleOption() {
         return scheduleOption;
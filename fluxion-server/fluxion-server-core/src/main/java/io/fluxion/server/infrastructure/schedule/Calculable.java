@@ -26,6 +26,11 @@ import java.time.LocalDateTime;
  */
 public interface Calculable {
 
+    /**
+     * 以时间戳表示时，没有触发时间
+     */
+    long NO_TRIGGER = -1L;
+
     /**
      * 获取调度配置
      */
@@ -22,6 +22,9 @@ import com.cronutils.model.definition.CronDefinition;
 import com.cronutils.model.definition.CronDefinitionBuilder;
 import com.cronutils.model.time.ExecutionTime;
 import com.cronutils.parser.CronParser;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import io.fluxion.server.infrastructure.schedule.Calculable;
 import io.fluxion.server.infrastructure.schedule.ScheduleOption;
 import io.fluxion.server.infrastructure.schedule.ScheduleType;
@@ -30,7 +33,11 @@ import lombok.extern.slf4j.Slf4j;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 
 /**
  * CRON调度时间计算器
@@ -41,6 +48,19 @@ import java.util.Optional;
 @Slf4j
 public class CronScheduleCalculator implements ScheduleCalculator {
 
+    /**
+     * 缓存最大数量
+     */
+    private static final int EXECUTION_TIME_CACHE_SIZE = 10000;
+
+    /**
+     * cronType + cron -> ExecutionTime，ExecutionTime 不可变，可以并发使用
+     */
+    private static final Cache<String, ExecutionTime> EXECUTION_TIME_CACHE = CacheBuilder.newBuilder()
+        .maximumSize(EXECUTION_TIME_CACHE_SIZE)
+        .recordStats()
+        .build();
+
     public static Cron getCron(String cron, String cronType) {
         // 校验CRON表达式
         CronDefinition cronDefinition = CronDefinitionBuilder.instanceDefinitionFor(CronType.valueOf(cronType));
@@ -48,6 +68,24 @@ public class CronScheduleCalculator implements ScheduleCalculator {
         return parser.parse(cron);
     }
 
+    /**
+     * 获取解析后的 ExecutionTime，相同的 cron 只会解析一次
+     */
+    public static ExecutionTime getExecutionTime(String cron, String cronType) {
+        try {
+            return EXECUTION_TIME_CACHE.get(cronType + ":" + cron, () -> ExecutionTime.forCron(getCron(cron, cronType)));
+        } catch (ExecutionException e) {
+            throw new IllegalArgumentException("parse cron expression failed cron:" + cron + " cronType:" + cronType, e.getCause());
+        }
+    }
+
+    /**
+     * 缓存命中/未命中/淘汰统计
+     */
+    public static CacheStats executionTimeCacheStats() {
+        return EXECUTION_TIME_CACHE.stats();
+    }
+
     /**
      * 通过此策略计算下一次触发调度的时间戳。如果不应该被触发，返回0或负数。
      *
@@ -61,7 +99,7 @@ public class CronScheduleCalculator implements ScheduleCalculator {
         String cron = scheduleOption.getCron();
         String cronType = scheduleOption.getCronType();
         try {
-            ExecutionTime executionTime = ExecutionTime.forCron(getCron(cron, cronType));
+            ExecutionTime executionTime = getExecutionTime(cron, cronType);
 
             // 解析下次触发时间
             Optional<ZonedDateTime> nextSchedule = executionTime.nextExecution(
@@ -79,6 +117,37 @@ public class CronScheduleCalculator implements ScheduleCalculator {
         }
     }
 
+    /**
+     * 基于同一个 ExecutionTime 逐个向后推进
+     */
+    @Override
+    public List<LocalDateTime> nextTriggers(ScheduleOption option, LocalDateTime from, LocalDateTime until, int limit) {
+        String cron = option.getCron();
+        String cronType = option.getCronType();
+        LocalDateTime end = earlierTime(until, option.getEndTime());
+        try {
+            ExecutionTime executionTime = getExecutionTime(cron, cronType);
+            List<LocalDateTime> triggers = new ArrayList<>();
+            ZonedDateTime last = from == null ? ZonedDateTime.now() : from.atZone(ZoneId.systemDefault());
+            while (triggers.size() < limit) {
+                Optional<ZonedDateTime> next = executionTime.nextExecution(last);
+                if (!next.isPresent()) {
+                    break;
+                }
+                LocalDateTime triggerAt = next.get().toLocalDateTime();
+                if (triggerAt.isAfter(end)) {
+                    break;
+                }
+                triggers.add(triggerAt);
+                last = next.get();
+            }
+            return triggers;
+        } catch (Exception e) {
+            log.error("parse cron expression {} {} failed!", cron, cronType, e);
+            return Collections.emptyList();
+        }
+    }
+
     @Override
     public ScheduleType scheduleType() {
         return ScheduleType.CRON;
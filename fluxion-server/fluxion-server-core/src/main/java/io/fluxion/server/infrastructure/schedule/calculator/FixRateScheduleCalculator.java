@@ -24,6 +24,9 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * 固定速度作业调度时间计算器
@@ -60,6 +63,27 @@ public class FixRateScheduleCalculator implements ScheduleCalculator {
         return laterTime(scheduleAt, TimeUtils.currentLocalDateTime());
     }
 
+    /**
+     * 首次触发时间与 {@link #calculate(Calculable)} 一致，之后按间隔直接累加
+     */
+    @Override
+    public List<LocalDateTime> nextTriggers(ScheduleOption option, LocalDateTime from, LocalDateTime until, int limit) {
+        Duration interval = option.getInterval();
+        LocalDateTime end = earlierTime(until, option.getEndTime());
+        LocalDateTime now = TimeUtils.currentLocalDateTime();
+        if (interval == null || interval.isZero() || interval.isNegative()) {
+            return limit > 0 && !now.isAfter(end) ? Collections.singletonList(now) : Collections.emptyList();
+        }
+        LocalDateTime next = from == null ? calculateStartScheduleTime(option) : from.plus(interval);
+        next = laterTime(next, now);
+        List<LocalDateTime> triggers = new ArrayList<>();
+        while (!next.isAfter(end) && triggers.size() < limit) {
+            triggers.add(next);
+            next = next.plus(interval);
+        }
+        return triggers;
+    }
+
     @Override
     public ScheduleType scheduleType() {
         return ScheduleType.FIXED_RATE;
@@ -16,12 +16,15 @@
 
 package io.fluxion.server.infrastructure.schedule.calculator;
 
+import io.fluxion.server.infrastructure.schedule.BasicCalculation;
 import io.fluxion.server.infrastructure.schedule.Calculable;
 import io.fluxion.server.infrastructure.schedule.ScheduleOption;
 import io.fluxion.server.infrastructure.schedule.ScheduleType;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 调度时间计算策略，用于计算下次触发调度时间戳
@@ -39,6 +42,32 @@ public interface ScheduleCalculator {
      */
     LocalDateTime calculate(Calculable calculable);
 
+    /**
+     * 计算 (from, until] 内的触发时间，不会超过调度配置的结束时间。
+     * 默认逐次计算，具体策略可以覆盖为一次性计算。
+     *
+     * @param option 调度配置
+     * @param from   上次触发时间，为空表示未触发过
+     * @param until  截止时间（包含）
+     * @param limit  最多返回数量
+     * @return 按时间升序的触发时间
+     */
+    default List<LocalDateTime> nextTriggers(ScheduleOption option, LocalDateTime from, LocalDateTime until, int limit) {
+        List<LocalDateTime> triggers = new ArrayList<>();
+        LocalDateTime end = earlierTime(until, option.getEndTime());
+        LocalDateTime last = from;
+        while (triggers.size() < limit) {
+            LocalDateTime next = new BasicCalculation(last, last, option).triggerAt();
+            // 时间未前进的也需要结束 避免死循环
+            if (next == null || next.isAfter(end) || (last != null && !next.isAfter(last))) {
+                break;
+            }
+            triggers.add(next);
+            last = next;
+        }
+        return triggers;
+    }
+
     /**
      * 此策略适用的调度类型
      */
@@ -56,6 +85,18 @@ public interface ScheduleCalculator {
         return delay != null ? startTime.plusSeconds(delay.getSeconds()) : startTime;
     }
 
+    default LocalDateTime earlierTime(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        } else if (b == null) {
+            return a;
+        } else if (a.isAfter(b)) {
+            return b;
+        } else {
+            return a;
+        }
+    }
+
     default LocalDateTime laterTime(LocalDateTime a, LocalDateTime b) {
         if (a == null) {
             return b;
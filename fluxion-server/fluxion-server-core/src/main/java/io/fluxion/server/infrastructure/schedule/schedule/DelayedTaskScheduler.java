@@ -20,6 +20,8 @@ import io.fluxion.server.infrastructure.schedule.scheduler.TaskScheduler;
 import io.fluxion.server.infrastructure.schedule.task.DelayedTask;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.concurrent.Executor;
+
 /**
  * 延迟执行一次
  *
@@ -33,6 +35,10 @@ public class DelayedTaskScheduler extends TaskScheduler<DelayedTask> {
         super(timer);
     }
 
+    public DelayedTaskScheduler(Timer timer, Executor fireExecutor) {
+        super(timer, fireExecutor);
+    }
+
     @Override
     protected void run(DelayedTask task) {
         task.run();
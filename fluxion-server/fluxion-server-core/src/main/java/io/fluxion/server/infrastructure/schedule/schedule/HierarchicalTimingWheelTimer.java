@@ -0,0 +1,182 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.server.infrastructure.schedule.schedule;
+
+import io.fluxion.common.thread.NamedThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 分层时间轮（参考 Kafka 的实现）
+ * <ul>
+ *     <li>只有存在任务的槽位才会放入 DelayQueue，空闲时不会空转</li>
+ *     <li>超出当前层范围的任务放入上层时间轮，到期后降级到下层</li>
+ *     <li>任务取消直接从槽位链表中移除 O(1)</li>
+ * </ul>
+ *
+ * @author Devil
+ */
+@Slf4j
+public class HierarchicalTimingWheelTimer implements Timer {
+
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final long tickMs;
+
+    private final DelayQueue<TimerTaskList> delayQueue = new DelayQueue<>();
+
+    private final AtomicInteger taskCounter = new AtomicInteger(0);
+
+    private final TimingWheel timingWheel;
+
+    /**
+     * 添加任务使用读锁，推进时间使用写锁
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 已到期待执行的任务
+     */
+    private final Queue<TimerTaskEntry> expired = new ConcurrentLinkedQueue<>();
+
+    private final Thread worker;
+
+    private volatile boolean running = true;
+
+    /**
+     * @param tickDuration 最小时间格
+     * @param unit         时间单位
+     */
+    public HierarchicalTimingWheelTimer(long tickDuration, TimeUnit unit) {
+        this(tickDuration, unit, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * @param tickDuration 最小时间格
+     * @param unit         时间单位
+     * @param wheelSize    每层的槽位数
+     */
+    public HierarchicalTimingWheelTimer(long tickDuration, TimeUnit unit, int wheelSize) {
+        this.tickMs = Math.max(unit.toMillis(tickDuration), 1);
+        this.timingWheel = new TimingWheel(tickMs, wheelSize, clockMs(), taskCounter, delayQueue);
+        this.worker = NamedThreadFactory.newInstance(this.getClass().getSimpleName()).newThread(this::work);
+        this.worker.start();
+    }
+
+    static long clockMs() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    @Override
+    public Timeout schedule(Runnable runnable, long delay, TimeUnit unit) {
+        // 向上取整到 tick，保证任务不会提前执行
+        long deadline = clockMs() + unit.toMillis(delay);
+        TimerTaskEntry entry = new TimerTaskEntry(runnable, (deadline + tickMs - 1) / tickMs * tickMs);
+        lock.readLock().lock();
+        try {
+            addEntry(entry);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return entry;
+    }
+
+    private void addEntry(TimerTaskEntry entry) {
+        if (!timingWheel.add(entry) && !entry.cancelled()) {
+            // 已经到期 交给工作线程执行
+            expired.offer(entry);
+        }
+    }
+
+    private void work() {
+        while (running) {
+            try {
+                advanceClock();
+                runExpired();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable e) {
+                log.error("[{}] advance clock fail", this.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    private void advanceClock() throws InterruptedException {
+        TimerTaskList bucket = delayQueue.poll(tickMs, TimeUnit.MILLISECONDS);
+        if (bucket == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            while (bucket != null) {
+                timingWheel.advanceClock(bucket.getExpiration());
+                // 到期的放入 expired，未到期的降级到下层时间轮
+                bucket.flush(this::addEntry);
+                bucket = delayQueue.poll();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 在锁外执行任务，避免阻塞任务添加
+     */
+    private void runExpired() {
+        TimerTaskEntry entry;
+        while ((entry = expired.poll()) != null) {
+            if (entry.cancelled()) {
+                continue;
+            }
+            try {
+                entry.task.run();
+            } catch (Throwable e) {
+                log.error("[{}] task run fail", this.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    @Override
+    public long pending() {
+        return taskCounter.get() + expired.size();
+    }
+
+    /**
+     * 各层时间轮中非空槽位数量，下标 0 为最底层
+     */
+    public List<Integer> occupancy() {
+        List<Integer> occupancies = new ArrayList<>();
+        timingWheel.occupancy(occupancies);
+        return occupancies;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+}
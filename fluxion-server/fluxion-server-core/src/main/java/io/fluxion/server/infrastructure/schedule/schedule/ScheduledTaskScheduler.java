@@ -25,6 +25,7 @@ import io.fluxion.server.infrastructure.schedule.task.ScheduledTask;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.Executor;
 
 /**
  * 可循环调度的task调度器
@@ -39,6 +40,10 @@ public class ScheduledTaskScheduler extends TaskScheduler<ScheduledTask> {
         super(timer);
     }
 
+    public ScheduledTaskScheduler(Timer timer, Executor fireExecutor) {
+        super(timer, fireExecutor);
+    }
+
     @Override
     protected void run(ScheduledTask task) {
         try {
@@ -88,7 +93,9 @@ public class ScheduledTaskScheduler extends TaskScheduler<ScheduledTask> {
     private void reschedule(ScheduledTask task) {
         String scheduleId = task.id();
         try {
-            log.info("reschedule task at:{}", task.triggerAt().format(Formatters.getFormatter(Formatters.YMD_HMS_SSS)));
+            if (log.isDebugEnabled()) {
+                log.debug("reschedule task at:{}", task.triggerAt().format(Formatters.getFormatter(Formatters.YMD_HMS_SSS)));
+            }
             doSchedule(task.nextTrigger());
         } catch (Exception e) {
             log.error("ScheduledTask [{}] reschedule failed", scheduleId, e);
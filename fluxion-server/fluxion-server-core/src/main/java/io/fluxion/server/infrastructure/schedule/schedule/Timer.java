@@ -25,7 +25,27 @@ public interface Timer {
      * @param runnable 运行内容
      * @param delay    延迟
      * @param unit     时间单位
+     * @return 用于取消任务
      */
-    void schedule(Runnable runnable, long delay, TimeUnit unit);
+    Timeout schedule(Runnable runnable, long delay, TimeUnit unit);
+
+    /**
+     * 等待执行的任务数
+     */
+    long pending();
+
+    /**
+     * 停止，未执行的任务不再执行
+     */
+    void stop();
+
+    interface Timeout {
+        /**
+         * 取消任务
+         *
+         * @return 任务还未执行且取消成功返回 true
+         */
+        boolean cancel();
+    }
 
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.server.infrastructure.schedule.schedule;
+
+/**
+ * 时间轮中的任务节点，同时作为取消句柄
+ *
+ * @author Devil
+ */
+class TimerTaskEntry implements Timer.Timeout {
+
+    final Runnable task;
+
+    final long expirationMs;
+
+    /**
+     * 所在的槽位，为空表示不在时间轮中
+     */
+    volatile TimerTaskList list;
+
+    TimerTaskEntry next;
+
+    TimerTaskEntry prev;
+
+    private volatile boolean cancelled = false;
+
+    TimerTaskEntry(Runnable task, long expirationMs) {
+        this.task = task;
+        this.expirationMs = expirationMs;
+    }
+
+    /**
+     * 直接从所在槽位的链表中移除 O(1)
+     */
+    @Override
+    public boolean cancel() {
+        cancelled = true;
+        boolean removed = false;
+        // 降级过程中可能被移动到其它槽位，需要重试
+        TimerTaskList current = list;
+        while (current != null) {
+            removed |= current.remove(this);
+            current = list;
+        }
+        return removed;
+    }
+
+    boolean cancelled() {
+        return cancelled;
+    }
+
+    void remove() {
+        TimerTaskList current = list;
+        while (current != null) {
+            current.remove(this);
+            current = list;
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.server.infrastructure.schedule.schedule;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 时间轮槽位，双向链表，插入删除都是 O(1)
+ *
+ * @author Devil
+ */
+class TimerTaskList implements Delayed {
+
+    /**
+     * 整个定时器中的任务数
+     */
+    private final AtomicInteger taskCounter;
+
+    private final TimerTaskEntry root = new TimerTaskEntry(null, -1L);
+
+    /**
+     * 槽位过期时间，-1 表示未放入延迟队列
+     */
+    private final AtomicLong expiration = new AtomicLong(-1L);
+
+    private int size = 0;
+
+    TimerTaskList(AtomicInteger taskCounter) {
+        this.taskCounter = taskCounter;
+        this.root.next = root;
+        this.root.prev = root;
+    }
+
+    /**
+     * @return 过期时间是否变化，变化了需要重新放入延迟队列
+     */
+    boolean setExpiration(long expirationMs) {
+        return expiration.getAndSet(expirationMs) != expirationMs;
+    }
+
+    long getExpiration() {
+        return expiration.get();
+    }
+
+    void add(TimerTaskEntry entry) {
+        boolean done = false;
+        while (!done) {
+            // 如果在其它槽位中需要先移除
+            entry.remove();
+            synchronized (this) {
+                synchronized (entry) {
+                    if (entry.list == null) {
+                        TimerTaskEntry tail = root.prev;
+                        entry.next = root;
+                        entry.prev = tail;
+                        entry.list = this;
+                        tail.next = entry;
+                        root.prev = entry;
+                        size++;
+                        taskCounter.incrementAndGet();
+                        done = true;
+                    }
+                }
+            }
+        }
+    }
+
+    boolean remove(TimerTaskEntry entry) {
+        synchronized (this) {
+            synchronized (entry) {
+                if (entry.list != this) {
+                    return false;
+                }
+                entry.next.prev = entry.prev;
+                entry.prev.next = entry.next;
+                entry.next = null;
+                entry.prev = null;
+                entry.list = null;
+                size--;
+                taskCounter.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 移除所有任务并交给 consumer 处理
+     */
+    synchronized void flush(Consumer<TimerTaskEntry> consumer) {
+        TimerTaskEntry head = root.next;
+        while (head != root) {
+            remove(head);
+            consumer.accept(head);
+            head = root.next;
+        }
+        expiration.set(-1L);
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(Math.max(getExpiration() - HierarchicalTimingWheelTimer.clockMs(), 0), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed o) {
+        return Long.compare(getExpiration(), ((TimerTaskList) o).getExpiration());
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.server.infrastructure.schedule.schedule;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 时间轮实现类型
+ *
+ * @author Devil
+ */
+public enum TimerType {
+    /**
+     * Netty HashedWheelTimer 每个 tick 都会唤醒，取消任务需要等到 tick 时清理
+     */
+    HASHED_WHEEL,
+    /**
+     * 分层时间轮 空闲时不唤醒，取消任务 O(1)
+     */
+    HIERARCHICAL_WHEEL,
+    ;
+
+    public Timer create(long tickDuration, TimeUnit unit) {
+        switch (this) {
+            case HIERARCHICAL_WHEEL:
+                return new HierarchicalTimingWheelTimer(tickDuration, unit);
+            case HASHED_WHEEL:
+            default:
+                return new TimingWheelTimer(tickDuration, unit);
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.server.infrastructure.schedule.schedule;
+
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单层时间轮，超出范围的任务放入上一层时间轮
+ *
+ * @author Devil
+ */
+class TimingWheel {
+
+    private final long tickMs;
+
+    private final int wheelSize;
+
+    /**
+     * 当前层能表示的时间跨度
+     */
+    private final long interval;
+
+    private final AtomicInteger taskCounter;
+
+    private final DelayQueue<TimerTaskList> queue;
+
+    private final TimerTaskList[] buckets;
+
+    /**
+     * 当前时间 为 tickMs 的整数倍
+     */
+    private long currentTime;
+
+    private volatile TimingWheel overflowWheel;
+
+    TimingWheel(long tickMs, int wheelSize, long startMs, AtomicInteger taskCounter, DelayQueue<TimerTaskList> queue) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.taskCounter = taskCounter;
+        this.queue = queue;
+        this.currentTime = startMs - (startMs % tickMs);
+        this.buckets = new TimerTaskList[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new TimerTaskList(taskCounter);
+        }
+    }
+
+    private synchronized void addOverflowWheel() {
+        if (overflowWheel == null) {
+            overflowWheel = new TimingWheel(interval, wheelSize, currentTime, taskCounter, queue);
+        }
+    }
+
+    /**
+     * @return false 表示已经取消或者已经到期
+     */
+    boolean add(TimerTaskEntry entry) {
+        long expiration = entry.expirationMs;
+        if (entry.cancelled()) {
+            return false;
+        } else if (expiration < currentTime + tickMs) {
+            // 已经到期
+            return false;
+        } else if (expiration < currentTime + interval) {
+            long virtualId = expiration / tickMs;
+            TimerTaskList bucket = buckets[(int) (virtualId % wheelSize)];
+            bucket.add(entry);
+            // 槽位的过期时间变化了，说明槽位被重复使用，需要重新入队
+            if (bucket.setExpiration(virtualId * tickMs)) {
+                queue.offer(bucket);
+            }
+            return true;
+        } else {
+            if (overflowWheel == null) {
+                addOverflowWheel();
+            }
+            return overflowWheel.add(entry);
+        }
+    }
+
+    void advanceClock(long timeMs) {
+        if (timeMs >= currentTime + tickMs) {
+            currentTime = timeMs - (timeMs % tickMs);
+            if (overflowWheel != null) {
+                overflowWheel.advanceClock(currentTime);
+            }
+        }
+    }
+
+    /**
+     * 各层非空槽位数量
+     */
+    void occupancy(List<Integer> occupancies) {
+        int occupied = 0;
+        for (TimerTaskList bucket : buckets) {
+            if (bucket.size() > 0) {
+                occupied++;
+            }
+        }
+        occupancies.add(occupied);
+        if (overflowWheel != null) {
+            overflowWheel.occupancy(occupancies);
+        }
+    }
+
+}
@@ -29,7 +29,7 @@ public class TimingWheelTimer implements Timer {
     /**
      * 依赖netty的时间轮算法进行作业调度
      */
-    private final io.netty.util.Timer timer;
+    private final HashedWheelTimer timer;
 
     /**
      * 使用指定执行器构造一个调度器，该调度器基于哈希时间轮算法。
@@ -42,10 +42,21 @@ public class TimingWheelTimer implements Timer {
     }
 
     @Override
-    public void schedule(Runnable runnable, long delay, TimeUnit unit) {
+    public Timeout schedule(Runnable runnable, long delay, TimeUnit unit) {
         // 在timer上调度作业执行
-        this.timer.newTimeout(timeout -> {
+        io.netty.util.Timeout timeout = this.timer.newTimeout(t -> {
             runnable.run();
         }, delay, unit);
+        return timeout::cancel;
+    }
+
+    @Override
+    public long pending() {
+        return timer.pendingTimeouts();
+    }
+
+    @Override
+    public void stop() {
+        timer.stop();
     }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.server.infrastructure.schedule.scheduler;
+
+import io.fluxion.common.thread.NamedThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 任务触发线程池
+ * 时间轮线程只负责投递，任务在此线程池中执行，避免单个任务阻塞时间轮导致后续任务触发延迟
+ *
+ * @author Devil
+ */
+public class FireExecutor implements Executor {
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * @param name         线程名前缀
+     * @param poolSize     线程数
+     * @param queueSize    等待队列长度
+     * @param rejectPolicy 队列满后的处理策略
+     */
+    public FireExecutor(String name, int poolSize, int queueSize, RejectPolicy rejectPolicy) {
+        this.executor = new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            60,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueSize),
+            NamedThreadFactory.newInstance(name),
+            rejectPolicy.handler()
+        );
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    /**
+     * 当前排队中的任务数
+     */
+    public int queueSize() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * 正在执行的任务数
+     */
+    public int activeCount() {
+        return executor.getActiveCount();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 队列满后的处理策略
+     */
+    public enum RejectPolicy {
+        /**
+         * 由投递线程（时间轮线程）直接执行，对时间轮形成反压
+         */
+        CALLER_RUNS,
+        /**
+         * 拒绝执行，任务将被移出调度
+         */
+        ABORT,
+        ;
+
+        RejectedExecutionHandler handler() {
+            switch (this) {
+                case ABORT:
+                    return new ThreadPoolExecutor.AbortPolicy();
+                case CALLER_RUNS:
+                default:
+                    return new ThreadPoolExecutor.CallerRunsPolicy();
+            }
+        }
+    }
+
+}
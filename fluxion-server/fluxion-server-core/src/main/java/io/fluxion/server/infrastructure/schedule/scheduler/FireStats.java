@@ -0,0 +1,72 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.server.infrastructure.schedule.scheduler;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 调度器触发统计
+ * 触发延迟 = 实际执行时间 - 计划触发时间
+ *
+ * @author Devil
+ */
+public class FireStats {
+
+    private final LongAdder fired = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder totalLagMs = new LongAdder();
+
+    private final AtomicLong maxLagMs = new AtomicLong();
+
+    private volatile long lastLagMs;
+
+    void fired(long lagMs) {
+        fired.increment();
+        totalLagMs.add(lagMs);
+        maxLagMs.accumulateAndGet(lagMs, Math::max);
+        lastLagMs = lagMs;
+    }
+
+    void rejected() {
+        rejected.increment();
+    }
+
+    public long fired() {
+        return fired.sum();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    public long lastLagMs() {
+        return lastLagMs;
+    }
+
+    public long maxLagMs() {
+        return maxLagMs.get();
+    }
+
+    public long avgLagMs() {
+        long count = fired.sum();
+        return count == 0 ? 0 : totalLagMs.sum() / count;
+    }
+
+}
@@ -17,14 +17,16 @@
 package io.fluxion.server.infrastructure.schedule.scheduler;
 
 import io.fluxion.common.utils.time.TimeUtils;
+import io.fluxion.server.infrastructure.schedule.Calculable;
 import io.fluxion.server.infrastructure.schedule.schedule.Scheduler;
 import io.fluxion.server.infrastructure.schedule.schedule.Timer;
 import io.fluxion.server.infrastructure.schedule.task.AbstractTask;
 import lombok.extern.slf4j.Slf4j;
 
-import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -38,6 +40,13 @@ public abstract class TaskScheduler<T extends AbstractTask> implements Scheduler
 
     private final Timer timer;
 
+    /**
+     * 触发执行器，为空则直接在时间轮线程中执行
+     */
+    private final Executor fireExecutor;
+
+    private final FireStats fireStats = new FireStats();
+
     /**
      * 相同ID的task只会存在一个
      */
@@ -46,7 +55,12 @@ public abstract class TaskScheduler<T extends AbstractTask> implements Scheduler
     private final TimeUnit SCHEDULE_UNIT = TimeUnit.MILLISECONDS;
 
     public TaskScheduler(Timer timer) {
+        this(timer, null);
+    }
+
+    public TaskScheduler(Timer timer, Executor fireExecutor) {
         this.timer = timer;
+        this.fireExecutor = fireExecutor;
         this.scheduling = new ConcurrentHashMap<>();
     }
 
@@ -72,11 +86,8 @@ public abstract class TaskScheduler<T extends AbstractTask> implements Scheduler
     /**
      * 计算调度延时
      */
-    private Long calDelay(T task) {
-        if (task.triggerAt() == null) {
-            return null;
-        }
-        long delay = Duration.between(TimeUtils.currentLocalDateTime(), task.triggerAt()).toMillis();
+    private long calDelay(T task) {
+        long delay = task.triggerAtMillis() - TimeUtils.currentTimeMillis();
         return delay < 0 ? 0 : delay;
     }
 
@@ -84,28 +95,47 @@ public abstract class TaskScheduler<T extends AbstractTask> implements Scheduler
      * 调度
      */
     protected void doSchedule(T task) {
-        TaskScheduler<T> scheduler = this;
-        Long delay = calDelay(task);
-        if (delay == null) {
+        if (task.triggerAtMillis() == Calculable.NO_TRIGGER) {
             scheduling.remove(task.id());
             return;
         }
-        timer.schedule(() -> {
+        long delay = calDelay(task);
+        Timer.Timeout timeout = timer.schedule(() -> {
             // 已经取消调度了，则不再重新调度作业
             if (task.stopped()) {
                 scheduling.remove(task.id());
                 return;
             }
-            Throwable thrown = null;
+            if (fireExecutor == null) {
+                fire(task);
+                return;
+            }
             try {
-                scheduler.run(task);
-            } catch (Throwable e) {
-                log.error("[{}] schedule fail id:{}", scheduler.getClass().getSimpleName(), task.id(), e);
-                thrown = e;
-            } finally {
-                afterExecute(task, thrown);
+                fireExecutor.execute(() -> fire(task));
+            } catch (RejectedExecutionException e) {
+                log.error("[{}] fire rejected id:{}", getClass().getSimpleName(), task.id());
+                fireStats.rejected();
+                afterExecute(task, e);
             }
         }, delay, SCHEDULE_UNIT);
+        task.timeout(timeout);
+    }
+
+    /**
+     * 执行任务
+     */
+    private void fire(T task) {
+        long lag = TimeUtils.currentTimeMillis() - task.triggerAtMillis();
+        fireStats.fired(Math.max(lag, 0));
+        Throwable thrown = null;
+        try {
+            run(task);
+        } catch (Throwable e) {
+            log.error("[{}] schedule fail id:{}", getClass().getSimpleName(), task.id(), e);
+            thrown = e;
+        } finally {
+            afterExecute(task, thrown);
+        }
     }
 
     @Override
@@ -116,6 +146,13 @@ public abstract class TaskScheduler<T extends AbstractTask> implements Scheduler
         }
     }
 
+    /**
+     * 触发统计
+     */
+    public FireStats fireStats() {
+        return fireStats;
+    }
+
     protected abstract void run(T task);
 
     protected abstract void afterExecute(T task, Throwable thrown);
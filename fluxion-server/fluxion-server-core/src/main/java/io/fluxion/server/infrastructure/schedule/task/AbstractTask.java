@@ -16,6 +16,9 @@
 
 package io.fluxion.server.infrastructure.schedule.task;
 
+import io.fluxion.server.infrastructure.schedule.Calculable;
+import io.fluxion.server.infrastructure.schedule.schedule.Timer;
+
 import java.time.LocalDateTime;
 
 /**
@@ -31,6 +34,11 @@ public abstract class AbstractTask {
      */
     private volatile boolean stopped = false;
 
+    /**
+     * 当前在时间轮中的句柄，停止时直接移除
+     */
+    private volatile Timer.Timeout timeout;
+
     public AbstractTask(String id) {
         this.id = id;
     }
@@ -42,12 +50,27 @@ public abstract class AbstractTask {
 
     public abstract LocalDateTime triggerAt();
 
+    /**
+     * 触发时间戳 毫秒，调度过程中使用，避免创建时间对象
+     *
+     * @return 没有触发时间返回 {@link Calculable#NO_TRIGGER}
+     */
+    public abstract long triggerAtMillis();
+
     public String id() {
         return id;
     }
 
     public void stop() {
         stopped = true;
+        Timer.Timeout current = timeout;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    public void timeout(Timer.Timeout timeout) {
+        this.timeout = timeout;
     }
 
     public boolean stopped() {
@@ -16,6 +16,8 @@
 
 package io.fluxion.server.infrastructure.schedule.task;
 
+import io.fluxion.common.utils.time.TimeUtils;
+import io.fluxion.server.infrastructure.schedule.Calculable;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
@@ -30,7 +32,7 @@ import java.util.function.Consumer;
 @Slf4j
 public class DelayedTask extends AbstractTask {
 
-    private final LocalDateTime triggerAt;
+    private final long triggerAtMillis;
 
     /**
      * 业务逻辑
@@ -38,8 +40,12 @@ public class DelayedTask extends AbstractTask {
     private final Consumer<DelayedTask> consumer;
 
     public DelayedTask(String id, LocalDateTime triggerAt, Consumer<DelayedTask> consumer) {
+        this(id, triggerAt == null ? Calculable.NO_TRIGGER : TimeUtils.toTimestamp(triggerAt), consumer);
+    }
+
+    public DelayedTask(String id, long triggerAtMillis, Consumer<DelayedTask> consumer) {
         super(id);
-        this.triggerAt = triggerAt;
+        this.triggerAtMillis = triggerAtMillis;
         this.consumer = consumer;
     }
 
@@ -50,7 +56,12 @@ public class DelayedTask extends AbstractTask {
 
     @Override
     public LocalDateTime triggerAt() {
-        return triggerAt;
+        return triggerAtMillis == Calculable.NO_TRIGGER ? null : TimeUtils.toLocalDateTime(triggerAtMillis);
+    }
+
+    @Override
+    public long triggerAtMillis() {
+        return triggerAtMillis;
     }
 
 }
@@ -39,4 +39,8 @@ public class DelayedTaskFactory {
         return new DelayedTask(id, triggerAt, consumer);
     }
 
+    public static DelayedTask create(String id, long triggerAtMillis, Consumer<DelayedTask> consumer) {
+        return new DelayedTask(id, triggerAtMillis, consumer);
+    }
+
 }
@@ -58,6 +58,11 @@ public class ScheduledTask extends AbstractTask {
         return calculation.triggerAt();
     }
 
+    @Override
+    public long triggerAtMillis() {
+        return calculation.triggerAtMillis();
+    }
+
     public Calculable calculation() {
         return calculation;
     }
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.server.start.api.broker.view;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Devil
+ */
+@Data
+public class BrokerMetricView {
+
+    /**
+     * 延迟任务调度器触发情况
+     */
+    private FireView delayedTaskFire;
+
+    /**
+     * 执行流程线程池
+     */
+    private PoolView pipeline;
+
+    /**
+     * 延迟任务时间轮
+     */
+    private TimerView delayTimer;
+
+    /**
+     * 调度加载 扫描与触发情况
+     */
+    private LoadView scheduleLoad;
+
+    /**
+     * 当前节点 bucket 归属缓存
+     */
+    private BucketView bucket;
+
+    /**
+     * cron 解析缓存
+     */
+    private CacheView cronCache;
+
+    /**
+     * 触发器配置缓存
+     */
+    private CacheView triggerCache;
+
+    /**
+     * 工作流（含 DAG）缓存
+     */
+    private CacheView workflowCache;
+
+    /**
+     * 执行器缓存
+     */
+    private CacheView executorCache;
+
+    /**
+     * ID 号段分配 key 为 ID 类型
+     */
+    private Map<String, IdSegmentView> idSegments;
+
+    /**
+     * 分布式锁竞争情况
+     */
+    private LockView lock;
+
+    /**
+     * 任务进度上报缓冲
+     */
+    private ReportView jobReport;
+
+    /**
+     * 内存中的 worker 注册表
+     */
+    private WorkerRegistryView workerRegistry;
+
+    /**
+     * worker 心跳缓冲
+     */
+    private HeartbeatView workerHeartbeat;
+
+    @Data
+    public static class FireView {
+        /**
+         * 已触发数量
+         */
+        private long fired;
+        /**
+         * 被拒绝数量
+         */
+        private long rejected;
+        /**
+         * 排队中数量
+         */
+        private int queued;
+        /**
+         * 最近一次触发延迟
+         */
+        private long lastLagMs;
+        /**
+         * 平均触发延迟
+         */
+        private long avgLagMs;
+        /**
+         * 最大触发延迟
+         */
+        private long maxLagMs;
+    }
+
+    @Data
+    public static class PoolView {
+        /**
+         * 执行中线程数
+         */
+        private int active;
+        /**
+         * 排队中数量
+         */
+        private int queued;
+    }
+
+    @Data
+    public static class TimerView {
+        /**
+         * 等待触发数量
+         */
+        private long pending;
+        /**
+         * 各层非空槽位数量 仅分层时间轮
+         */
+        private List<Integer> occupancy;
+    }
+
+    @Data
+    public static class LoadView {
+        /**
+         * 最近一次扫描数量
+         */
+        private long lastScanned;
+        /**
+         * 最近一次触发数量
+         */
+        private long lastTriggered;
+        /**
+         * 最近一次耗时
+         */
+        private long lastCostMs;
+        private long totalScanned;
+        private long totalTriggered;
+    }
+
+    @Data
+    public static class BucketView {
+        /**
+         * 负责的 bucket
+         */
+        private List<Integer> owned;
+        /**
+         * 缓存已加载多久
+         */
+        private long ageMs;
+        /**
+         * 节点版本已变化，下次查询会重新加载
+         */
+        private boolean stale;
+        private long hits;
+        private long reloads;
+        /**
+         * 当前节点负载 各 bucket 负载之和
+         */
+        private int load;
+        /**
+         * 累计触发的延迟任务数
+         */
+        private long fires;
+        /**
+         * 最近一次上报的各 bucket 负载
+         */
+        private Map<Integer, BucketLoadView> loads;
+    }
+
+    @Data
+    public static class BucketLoadView {
+        /**
+         * 每秒触发次数
+         */
+        private double fireRate;
+        /**
+         * 窗口内待触发的延迟任务数
+         */
+        private int backlog;
+        private double weight;
+    }
+
+    @Data
+    public static class CacheView {
+        private long hitCount;
+        private long missCount;
+        private long evictionCount;
+        private double hitRate;
+    }
+
+    @Data
+    public static class IdSegmentView {
+        /**
+         * 当前步长
+         */
+        private int step;
+        /**
+         * 号段加载次数
+         */
+        private long loads;
+        /**
+         * 取号等待号段加载次数
+         */
+        private long waits;
+        private long waitMs;
+        private long maxWaitMs;
+    }
+
+    @Data
+    public static class LockView {
+        private long acquired;
+        /**
+         * 获取失败次数
+         */
+        private long failed;
+        /**
+         * 同节点竞争 本地排队次数与耗时
+         */
+        private long localContended;
+        private long localWaitMs;
+        /**
+         * 跨节点竞争 轮询数据库次数与耗时
+         */
+        private long remoteContended;
+        private long remoteWaitMs;
+        /**
+         * 释放时租约已失效
+         */
+        private long leaseLost;
+    }
+
+    @Data
+    public static class ReportView {
+        /**
+         * 等待写库的任务数
+         */
+        private int pending;
+        private long offered;
+        /**
+         * 被合并的上报数
+         */
+        private long coalesced;
+        private long flushed;
+        private long lastFlushCostMs;
+    }
+
+    @Data
+    public static class HeartbeatView {
+        /**
+         * 等待写库的 worker 数
+         */
+        private int pending;
+        private long offered;
+        /**
+         * 最近一次写库周期内每秒接收的心跳数
+         */
+        private double ingestRate;
+        /**
+         * 被合并的心跳数
+         */
+        private long coalesced;
+        private long flushed;
+        private long lastFlushCostMs;
+        private long maxFlushCostMs;
+    }
+
+    @Data
+    public static class WorkerRegistryView {
+        /**
+         * 已加载的 app 数
+         */
+        private int apps;
+        /**
+         * 在线的 worker 数
+         */
+        private int workers;
+        private long hits;
+        private long reloads;
+    }
+
+}
@@ -25,6 +25,7 @@ import io.fluxion.remote.core.constants.Protocol;
 import io.fluxion.remote.core.utils.NetUtils;
 import io.fluxion.server.core.broker.Broker;
 import io.fluxion.server.core.broker.BrokerClientHandler;
+import io.fluxion.server.core.broker.BrokerConfig;
 import io.fluxion.server.core.broker.BrokerManger;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -33,6 +34,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplicat
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextClosedEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.util.Assert;
 
@@ -69,17 +71,40 @@ public class BrokerConfiguration {
         ClientServerConfig clientServerConfig = new ClientServerConfig(port, clientHandler);
         AbstractClientServer clientServer = factory.create(clientServerConfig);
 
+        BrokerConfig config = new BrokerConfig();
+        config.setScheduleLoadIntervalSeconds(brokerProperties.getScheduleLoadIntervalSeconds());
+        config.setScheduleLookAheadSeconds(brokerProperties.getScheduleLookAheadSeconds());
+        config.setScheduleAdaptiveLookAhead(brokerProperties.isScheduleAdaptiveLookAhead());
+        config.setScheduleAdaptiveTriggers(brokerProperties.getScheduleAdaptiveTriggers());
+        config.setScheduleAdaptiveLoadIntervalSeconds(brokerProperties.getScheduleAdaptiveLoadIntervalSeconds());
+        config.setDelayLoadIntervalSeconds(brokerProperties.getDelayLoadIntervalSeconds());
+        config.setLoadPoolSize(brokerProperties.getLoadPoolSize());
+        config.setPipelinePoolSize(brokerProperties.getPipelinePoolSize());
+        config.setPipelineQueueSize(brokerProperties.getPipelineQueueSize());
+        config.setDelayTickMillis(brokerProperties.getDelayTickMillis());
+        config.setDelayTimerType(brokerProperties.getDelayTimerType());
+        config.setDelayBatchFire(brokerProperties.isDelayBatchFire());
+        config.setDelayFirePoolSize(brokerProperties.getDelayFirePoolSize());
+        config.setDelayFireQueueSize(brokerProperties.getDelayFireQueueSize());
+        config.setDelayFireRejectPolicy(brokerProperties.getDelayFireRejectPolicy());
+        config.setJobReportFlushMillis(brokerProperties.getJobReportFlushMillis());
+        config.setBucketSize(brokerProperties.getBucketSize());
+        config.setBucketLoadReportSeconds(brokerProperties.getBucketLoadReportSeconds());
+        config.setGossipIntervalMillis(brokerProperties.getGossipIntervalMillis());
+        config.setGossipPhiThreshold(brokerProperties.getGossipPhiThreshold());
+        config.setWorkerHeartbeatFlushMillis(brokerProperties.getWorkerHeartbeatFlushMillis());
+
         return new BrokerStarter(
             brokerProperties.getProtocol(), host, port,
-            brokerManger, clientServer
+            brokerManger, clientServer, config
         );
     }
 
     private static class BrokerStarter extends Broker {
 
         BrokerStarter(Protocol protocol, String host, int port, BrokerManger brokerManger,
-                      ClientServer clientServer) {
-            super(protocol, host, port, brokerManger, clientServer);
+                      ClientServer clientServer, BrokerConfig config) {
+            super(protocol, host, port, brokerManger, clientServer, config);
         }
 
         @Override
@@ -87,6 +112,15 @@ public class BrokerConfiguration {
         public void start() {
             super.start();
         }
+
+        /**
+         * 在 Axon 等组件关闭前停止，保证缓冲的数据能够写库
+         */
+        @Override
+        @EventListener(ContextClosedEvent.class)
+        public void stop() {
+            super.stop();
+        }
     }
 
 }
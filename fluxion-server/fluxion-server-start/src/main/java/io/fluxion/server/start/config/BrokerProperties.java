@@ -17,6 +17,8 @@
 package io.fluxion.server.start.config;
 
 import io.fluxion.remote.core.constants.Protocol;
+import io.fluxion.server.infrastructure.schedule.schedule.TimerType;
+import io.fluxion.server.infrastructure.schedule.scheduler.FireExecutor;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
@@ -45,4 +47,111 @@ public class BrokerProperties {
      */
     private Protocol protocol = Protocol.HTTP;
 
+    /**
+     * 调度加载间隔 秒，每次加载下个间隔内会触发的调度
+     */
+    private int scheduleLoadIntervalSeconds = 600;
+
+    /**
+     * 调度最大预加载时间 秒，一次最多创建这段时间内的延迟任务，不小于加载间隔
+     */
+    private int scheduleLookAheadSeconds = 600;
+
+    /**
+     * 是否按触发频率计算每个调度的预加载时间。
+     * 开启后调度按 scheduleAdaptiveLoadIntervalSeconds 加载，高频调度只创建约 scheduleAdaptiveTriggers 个延迟任务（不少于两个加载间隔），
+     * 低频调度最多提前 scheduleLookAheadSeconds 创建
+     */
+    private boolean scheduleAdaptiveLookAhead = false;
+
+    /**
+     * 自适应模式下每个调度每次大约创建的延迟任务数
+     */
+    private int scheduleAdaptiveTriggers = 20;
+
+    /**
+     * 自适应模式下的调度加载间隔 秒，替代 scheduleLoadIntervalSeconds
+     */
+    private int scheduleAdaptiveLoadIntervalSeconds = 30;
+
+    /**
+     * 延迟任务加载间隔 秒
+     */
+    private int delayLoadIntervalSeconds = 60;
+
+    /**
+     * 按 bucket 加载 schedule/delay 的线程数，每个 bucket 一个任务并发执行。默认为 CPU 核数的 2 倍
+     */
+    private int loadPoolSize = Runtime.getRuntime().availableProcessors() * 2;
+
+    /**
+     * 执行流程（execution -> job -> 下发 worker）线程数，默认为 CPU 核数的 4 倍
+     */
+    private int pipelinePoolSize = Runtime.getRuntime().availableProcessors() * 4;
+
+    /**
+     * 执行流程等待队列长度，满了之后由提交线程直接执行，形成反压
+     */
+    private int pipelineQueueSize = 10000;
+
+    /**
+     * 延迟任务时间轮 tick 间隔 毫秒
+     */
+    private long delayTickMillis = 100L;
+
+    /**
+     * 延迟任务时间轮实现。HIERARCHICAL_WHEEL 空闲时不唤醒，取消任务直接从槽位移除，适合大量长延迟任务
+     */
+    private TimerType delayTimerType = TimerType.HASHED_WHEEL;
+
+    /**
+     * 是否批量触发延迟任务。开启后同一 tick 同一 bucket 的延迟任务合并为一次抢占、一次写入
+     */
+    private boolean delayBatchFire = true;
+
+    /**
+     * 延迟任务触发线程数，默认为 CPU 核数的 4 倍
+     */
+    private int delayFirePoolSize = Runtime.getRuntime().availableProcessors() * 4;
+
+    /**
+     * 延迟任务触发等待队列长度
+     */
+    private int delayFireQueueSize = 10000;
+
+    /**
+     * 延迟任务触发队列满后的处理策略。默认由时间轮线程直接执行，对时间轮形成反压
+     */
+    private FireExecutor.RejectPolicy delayFireRejectPolicy = FireExecutor.RejectPolicy.CALLER_RUNS;
+
+    /**
+     * 任务进度上报在内存中合并，按此间隔批量写库 毫秒。小于等于 0 时每次上报直接写库
+     */
+    private long jobReportFlushMillis = 5000L;
+
+    /**
+     * bucket 数量。可以在不停机的情况下调大，已有数据保留原 bucket，新数据按新数量分配；不能调小
+     */
+    private int bucketSize = 64;
+
+    /**
+     * bucket 触发频率和积压的上报间隔 秒，rebalance 按上报的负载均衡
+     */
+    private int bucketLoadReportSeconds = 10;
+
+    /**
+     * broker 之间互相 ping 交换成员的间隔 毫秒，越小下线检测越快
+     */
+    private long gossipIntervalMillis = 200L;
+
+    /**
+     * phi accrual 下线阈值，越大越不容易误判但检测越慢
+     */
+    private double gossipPhiThreshold = 8.0;
+
+    /**
+     * worker 心跳在内存中合并，按此间隔批量写库 毫秒。小于等于 0 时每次心跳直接写库
+     */
+    private long workerHeartbeatFlushMillis = 1000L;
+
 }
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.server.start.service;
+
+import com.google.common.cache.CacheStats;
+import io.fluxion.server.core.broker.Broker;
+import io.fluxion.server.core.broker.query.BucketsByBrokerQuery;
+import io.fluxion.server.core.broker.service.BucketLoadStats;
+import io.fluxion.server.core.broker.service.BucketQueryService;
+import io.fluxion.server.core.execution.service.ExecutableQueryService;
+import io.fluxion.server.core.job.service.JobReportBuffer;
+import io.fluxion.server.core.trigger.service.TriggerQueryService;
+import io.fluxion.server.core.worker.service.WorkerHeartbeatBuffer;
+import io.fluxion.server.core.worker.service.WorkerRegistry;
+import io.fluxion.server.core.workflow.service.WorkflowQueryService;
+import io.fluxion.server.core.broker.task.LoadStats;
+import io.fluxion.server.infrastructure.cqrs.Query;
+import io.fluxion.server.infrastructure.id.data.IDType;
+import io.fluxion.server.infrastructure.id.service.IDCommandService;
+import io.fluxion.server.infrastructure.id.service.IDSegmentBuffer;
+import io.fluxion.server.infrastructure.lock.DistributedLock;
+import io.fluxion.server.infrastructure.lock.LockStats;
+import io.fluxion.server.infrastructure.schedule.calculator.CronScheduleCalculator;
+import io.fluxion.server.infrastructure.schedule.schedule.HierarchicalTimingWheelTimer;
+import io.fluxion.server.infrastructure.schedule.schedule.Timer;
+import io.fluxion.server.infrastructure.schedule.scheduler.FireStats;
+import io.fluxion.server.start.api.broker.view.BrokerMetricView;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @author Devil
+ */
+@Service
+public class BrokerService {
+
+    @Resource
+    private Broker broker;
+
+    @Resource
+    private BucketQueryService bucketQueryService;
+
+    @Resource
+    private DistributedLock distributedLock;
+
+    @Resource
+    private JobReportBuffer jobReportBuffer;
+
+    @Resource
+    private WorkerRegistry workerRegistry;
+
+    @Resource
+    private WorkerHeartbeatBuffer workerHeartbeatBuffer;
+
+    @Resource
+    private BucketLoadStats bucketLoadStats;
+
+    public BrokerMetricView metrics() {
+        BrokerMetricView view = new BrokerMetricView();
+        view.setDelayedTaskFire(toView(broker.delayedTaskScheduler().fireStats(), broker.delayFireQueued()));
+        BrokerMetricView.PoolView pipeline = new BrokerMetricView.PoolView();
+        pipeline.setActive(broker.pipelineActive());
+        pipeline.setQueued(broker.pipelineQueued());
+        view.setPipeline(pipeline);
+        view.setDelayTimer(toView(broker.delayTimer()));
+        view.setScheduleLoad(toView(broker.scheduleLoader().stats()));
+        view.setBucket(bucketView());
+        view.setCronCache(toView(CronScheduleCalculator.executionTimeCacheStats()));
+        view.setTriggerCache(toView(TriggerQueryService.configCacheStats()));
+        view.setWorkflowCache(toView(WorkflowQueryService.workflowCacheStats()));
+        view.setExecutorCache(toView(ExecutableQueryService.executorCacheStats()));
+        Map<String, BrokerMetricView.IdSegmentView> idSegments = new LinkedHashMap<>();
+        for (Map.Entry<IDType, IDSegmentBuffer> entry : IDCommandService.segmentBuffers().entrySet()) {
+            idSegments.put(entry.getKey().name(), toView(entry.getValue()));
+        }
+        view.setIdSegments(idSegments);
+        view.setLock(toView(distributedLock.stats()));
+        view.setJobReport(toView(jobReportBuffer));
+        view.setWorkerRegistry(toView(workerRegistry));
+        view.setWorkerHeartbeat(toView(workerHeartbeatBuffer));
+        return view;
+    }
+
+    private BrokerMetricView.FireView toView(FireStats stats, int queued) {
+        BrokerMetricView.FireView view = new BrokerMetricView.FireView();
+        view.setFired(stats.fired());
+        view.setRejected(stats.rejectedCount());
+        view.setQueued(queued);
+        view.setLastLagMs(stats.lastLagMs());
+        view.setAvgLagMs(stats.avgLagMs());
+        view.setMaxLagMs(stats.maxLagMs());
+        return view;
+    }
+
+    private BrokerMetricView.TimerView toView(Timer timer) {
+        BrokerMetricView.TimerView view = new BrokerMetricView.TimerView();
+        view.setPending(timer.pending());
+        if (timer instanceof HierarchicalTimingWheelTimer) {
+            view.setOccupancy(((HierarchicalTimingWheelTimer) timer).occupancy());
+        }
+        return view;
+    }
+
+    private BrokerMetricView.LoadView toView(LoadStats stats) {
+        BrokerMetricView.LoadView view = new BrokerMetricView.LoadView();
+        view.setLastScanned(stats.lastScanned());
+        view.setLastTriggered(stats.lastTriggered());
+        view.setLastCostMs(stats.lastCostMs());
+        view.setTotalScanned(stats.totalScanned());
+        view.setTotalTriggered(stats.totalTriggered());
+        return view;
+    }
+
+    private BrokerMetricView.BucketView bucketView() {
+        BrokerMetricView.BucketView view = new BrokerMetricView.BucketView();
+        view.setOwned(Query.query(new BucketsByBrokerQuery(broker.id())).getBuckets());
+        view.setAgeMs(bucketQueryService.ownershipAgeMs());
+        view.setStale(bucketQueryService.ownershipStale());
+        view.setHits(bucketQueryService.ownershipHits());
+        view.setReloads(bucketQueryService.ownershipReloads());
+        view.setLoad(broker.node().load());
+        view.setFires(bucketLoadStats.fires());
+        Map<Integer, BrokerMetricView.BucketLoadView> loads = new LinkedHashMap<>();
+        for (Map.Entry<Integer, BucketLoadStats.Load> entry : bucketLoadStats.latest().entrySet()) {
+            loads.put(entry.getKey(), toView(entry.getValue()));
+        }
+        view.setLoads(loads);
+        return view;
+    }
+
+    private BrokerMetricView.BucketLoadView toView(BucketLoadStats.Load load) {
+        BrokerMetricView.BucketLoadView view = new BrokerMetricView.BucketLoadView();
+        view.setFireRate(load.fireRate());
+        view.setBacklog(load.backlog());
+        view.setWeight(load.weight());
+        return view;
+    }
+
+    private BrokerMetricView.CacheView toView(CacheStats stats) {
+        BrokerMetricView.CacheView view = new BrokerMetricView.CacheView();
+        view.setHitCount(stats.hitCount());
+        view.setMissCount(stats.missCount());
+        view.setEvictionCount(stats.evictionCount());
+        view.setHitRate(stats.hitRate());
+        return view;
+    }
+
+    private BrokerMetricView.IdSegmentView toView(IDSegmentBuffer buffer) {
+        BrokerMetricView.IdSegmentView view = new BrokerMetricView.IdSegmentView();
+        view.setStep(buffer.step());
+        view.setLoads(buffer.loads());
+        view.setWaits(buffer.waits());
+        view.setWaitMs(buffer.waitMs());
+        view.setMaxWaitMs(buffer.maxWaitMs());
+        return view;
+    }
+
+    private BrokerMetricView.LockView toView(LockStats stats) {
+        BrokerMetricView.LockView view = new BrokerMetricView.LockView();
+        view.setAcquired(stats.acquired());
+        view.setFailed(stats.failed());
+        view.setLocalContended(stats.localContended());
+        view.setLocalWaitMs(stats.localWaitMs());
+        view.setRemoteContended(stats.remoteContended());
+        view.setRemoteWaitMs(stats.remoteWaitMs());
+        view.setLeaseLost(stats.leaseLost());
+        return view;
+    }
+
+    private BrokerMetricView.ReportView toView(JobReportBuffer buffer) {
+        BrokerMetricView.ReportView view = new BrokerMetricView.ReportView();
+        view.setPending(buffer.pending());
+        view.setOffered(buffer.offered());
+        view.setCoalesced(buffer.coalesced());
+        view.setFlushed(buffer.flushed());
+        view.setLastFlushCostMs(buffer.lastFlushCostMs());
+        return view;
+    }
+
+    private BrokerMetricView.HeartbeatView toView(WorkerHeartbeatBuffer buffer) {
+        BrokerMetricView.HeartbeatView view = new BrokerMetricView.HeartbeatView();
+        view.setPending(buffer.pending());
+        view.setOffered(buffer.offered());
+        view.setIngestRate(buffer.ingestRate());
+        view.setCoalesced(buffer.coalesced());
+        view.setFlushed(buffer.flushed());
+        view.setLastFlushCostMs(buffer.lastFlushCostMs());
+        view.setMaxFlushCostMs(buffer.maxFlushCostMs());
+        return view;
+    }
+
+    private BrokerMetricView.WorkerRegistryView toView(WorkerRegistry registry) {
+        BrokerMetricView.WorkerRegistryView view = new BrokerMetricView.WorkerRegistryView();
+        view.setApps(registry.apps());
+        view.setWorkers(registry.workers());
+        view.setHits(registry.hits());
+        view.setReloads(registry.reloads());
+        return view;
+    }
+
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright 2025-2030 Fluxion Team (https://github.com/Fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+ALTER TABLE `fluxion_bucket`
+    ADD COLUMN `fire_rate` double       NOT NULL DEFAULT 0 AFTER `handoff_broker_id`,
+    ADD COLUMN `backlog`   int unsigned NOT NULL DEFAULT 0 AFTER `fire_rate`;
+
+ALTER TABLE `fluxion_schedule_delay`
+    ADD KEY `idx_bucket_status_trigger` (`bucket`, `status`, `trigger_at`);
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.test.benchmark;
+
+import io.fluxion.server.infrastructure.cqrs.DirectDispatch;
+import io.fluxion.server.infrastructure.cqrs.DirectDispatcher;
+import io.fluxion.server.infrastructure.cqrs.ICmd;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.axonframework.commandhandling.AnnotationCommandHandlerAdapter;
+import org.axonframework.commandhandling.CommandHandler;
+import org.axonframework.commandhandling.SimpleCommandBus;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.commandhandling.gateway.DefaultCommandGateway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个命令的分发开销，对比 Axon CommandGateway 与进程内直接分发
+ * 处理器只做简单计算，结果即为总线本身的开销
+ *
+ * @author Devil
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CqrsDispatchBenchmark {
+
+    private CommandGateway gateway;
+
+    private DirectDispatcher dispatcher;
+
+    private final HashCmd cmd = new HashCmd("broker-1");
+
+    @Setup
+    public void setup() {
+        HashCmdHandler handler = new HashCmdHandler();
+
+        SimpleCommandBus commandBus = SimpleCommandBus.builder().build();
+        new AnnotationCommandHandlerAdapter<>(handler).subscribe(commandBus);
+        gateway = DefaultCommandGateway.builder().commandBus(commandBus).build();
+
+        dispatcher = new DirectDispatcher();
+        dispatcher.register(handler);
+    }
+
+    @Benchmark
+    public int axon() {
+        return gateway.sendAndWait(cmd);
+    }
+
+    @Benchmark
+    public int direct() {
+        return dispatcher.dispatch(cmd);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class HashCmd implements ICmd<Integer> {
+        private String key;
+    }
+
+    @DirectDispatch
+    public static class HashCmdHandler {
+        @CommandHandler
+        public Integer handle(HashCmd cmd) {
+            return Math.abs(cmd.getKey().hashCode() % 64);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(CqrsDispatchBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()
+        ).run();
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.test.benchmark;
+
+import com.cronutils.model.CronType;
+import com.cronutils.model.time.ExecutionTime;
+import io.fluxion.server.infrastructure.schedule.calculator.CronScheduleCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * cron 下次触发时间计算吞吐，对比每次解析与缓存 ExecutionTime
+ *
+ * @author Devil
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CronCalculateBenchmark {
+
+    private static final String CRON = "0/1 * * * * ? *";
+
+    private static final String CRON_TYPE = CronType.QUARTZ.name();
+
+    private final LocalDateTime lastTriggerAt = LocalDateTime.now();
+
+    @Benchmark
+    public ZonedDateTime parseEveryTime() {
+        ExecutionTime executionTime = ExecutionTime.forCron(CronScheduleCalculator.getCron(CRON, CRON_TYPE));
+        return executionTime.nextExecution(lastTriggerAt.atZone(ZoneId.systemDefault())).orElse(null);
+    }
+
+    @Benchmark
+    public ZonedDateTime cached() {
+        ExecutionTime executionTime = CronScheduleCalculator.getExecutionTime(CRON, CRON_TYPE);
+        return executionTime.nextExecution(lastTriggerAt.atZone(ZoneId.systemDefault())).orElse(null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(CronCalculateBenchmark.class.getSimpleName())
+            .build()
+        ).run();
+    }
+
+}
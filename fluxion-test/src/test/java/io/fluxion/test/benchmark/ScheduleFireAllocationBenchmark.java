@@ -0,0 +1,92 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.test.benchmark;
+
+import io.fluxion.common.utils.time.TimeUtils;
+import io.fluxion.server.core.schedule.ScheduleDelay;
+import io.fluxion.server.infrastructure.schedule.task.DelayedTask;
+import io.fluxion.server.infrastructure.schedule.task.DelayedTaskFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 单次调度触发的内存分配，走实际的 ScheduleDelay.ID 与 DelayedTaskFactory 路径
+ * 关注 gc.alloc.rate.norm（每次操作分配的字节数）
+ *
+ * @author Devil
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleFireAllocationBenchmark {
+
+    private static final long TICK_MILLIS = 100;
+
+    private final LocalDateTime triggerAt = TimeUtils.currentLocalDateTime().plusSeconds(30);
+
+    private final Consumer<DelayedTask> consumer = t -> {
+    };
+
+    /**
+     * 逐条触发 加载 delay 后按 triggerAt 创建任务，到期时计算触发延迟
+     */
+    @Benchmark
+    public long singleFire() {
+        ScheduleDelay delay = new ScheduleDelay(new ScheduleDelay.ID("schedule", triggerAt), ScheduleDelay.Status.INIT);
+        DelayedTask task = DelayedTaskFactory.create(delay.getDelayId(), delay.getId().getTriggerAt(), consumer);
+        return TimeUtils.currentTimeMillis() - task.triggerAtMillis();
+    }
+
+    /**
+     * 批量触发 按 tick 时间戳创建批次任务
+     */
+    @Benchmark
+    public long batchFire() {
+        ScheduleDelay.ID delayId = new ScheduleDelay.ID("schedule", triggerAt);
+        long millis = TimeUtils.toTimestamp(delayId.getTriggerAt());
+        long tick = (millis + TICK_MILLIS - 1) / TICK_MILLIS * TICK_MILLIS;
+        DelayedTask task = DelayedTaskFactory.create("batch", tick, consumer);
+        return TimeUtils.currentTimeMillis() - task.triggerAtMillis();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ScheduleFireAllocationBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()
+        ).run();
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.test.core.broker;
+
+import io.fluxion.server.core.broker.service.BucketPlacement;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Devil
+ */
+class BucketPlacementTest {
+
+    private static final int BUCKET_SIZE = 64;
+
+    @Test
+    void testMinimalMovement() {
+        List<String> before = Arrays.asList("127.0.0.1:9785", "127.0.0.1:9786", "127.0.0.1:9787");
+        List<String> after = Arrays.asList("127.0.0.1:9785", "127.0.0.1:9786", "127.0.0.1:9787", "127.0.0.1:9788");
+        Map<String, Integer> counts = new HashMap<>();
+        for (int bucket = 1; bucket <= BUCKET_SIZE; bucket++) {
+            String oldOwner = BucketPlacement.owner(bucket, before);
+            String newOwner = BucketPlacement.owner(bucket, after);
+            // 只会移动到新节点
+            if (!oldOwner.equals(newOwner)) {
+                Assertions.assertEquals("127.0.0.1:9788", newOwner);
+            }
+            counts.merge(newOwner, 1, Integer::sum);
+            // 节点离开 只移动该节点的 bucket
+            String removed = BucketPlacement.owner(bucket, before.subList(1, 3));
+            if (!oldOwner.equals(removed)) {
+                Assertions.assertEquals("127.0.0.1:9785", oldOwner);
+            }
+        }
+        // 新节点分到了 bucket
+        Assertions.assertTrue(counts.getOrDefault("127.0.0.1:9788", 0) > 0);
+    }
+
+    @Test
+    void testBalanceByLoad() {
+        List<String> brokers = Arrays.asList("127.0.0.1:9785", "127.0.0.1:9786", "127.0.0.1:9787");
+        Map<Integer, String> owners = new HashMap<>();
+        Map<Integer, Double> weights = new HashMap<>();
+        for (int bucket = 1; bucket <= BUCKET_SIZE; bucket++) {
+            owners.put(bucket, BucketPlacement.owner(bucket, brokers));
+            weights.put(bucket, BucketPlacement.weight(0D, 0, 60));
+        }
+        // 同一节点上的几个 bucket 变热
+        String hot = owners.get(1);
+        int hotBuckets = 0;
+        for (Map.Entry<Integer, String> entry : owners.entrySet()) {
+            if (hot.equals(entry.getValue()) && hotBuckets < 3) {
+                weights.put(entry.getKey(), BucketPlacement.weight(100D, 600, 60));
+                hotBuckets++;
+            }
+        }
+        Map<Integer, String> balanced = owners;
+        for (int round = 0; round < 10; round++) {
+            balanced = BucketPlacement.balance(balanced, weights, brokers);
+        }
+        Map<String, Double> loads = new HashMap<>();
+        double total = 0;
+        for (Map.Entry<Integer, String> entry : balanced.entrySet()) {
+            loads.merge(entry.getValue(), weights.get(entry.getKey()), Double::sum);
+            total += weights.get(entry.getKey());
+        }
+        double max = loads.values().stream().mapToDouble(Double::doubleValue).max().orElse(0);
+        double min = loads.values().stream().mapToDouble(Double::doubleValue).min().orElse(0);
+        Assertions.assertTrue(max - min <= total / brokers.size() * 0.2, loads.toString());
+        // 已均衡时不再移动
+        Assertions.assertEquals(balanced, BucketPlacement.balance(balanced, weights, brokers));
+    }
+
+}
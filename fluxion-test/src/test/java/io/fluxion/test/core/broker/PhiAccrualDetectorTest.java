@@ -0,0 +1,63 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.test.core.broker;
+
+import io.fluxion.server.core.broker.PhiAccrualDetector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Devil
+ */
+class PhiAccrualDetectorTest {
+
+    @Test
+    void testPhi() {
+        PhiAccrualDetector detector = new PhiAccrualDetector(200, 100);
+        long now = 0;
+        for (int i = 0; i < 50; i++) {
+            now += 200;
+            detector.heartbeat(now);
+        }
+        // 按时到达不可疑
+        Assertions.assertTrue(detector.phi(now + 200) < 1);
+        // 超过一秒没有心跳
+        Assertions.assertTrue(detector.phi(now + 1000) > 8);
+        // 越久越可疑
+        Assertions.assertTrue(detector.phi(now + 600) < detector.phi(now + 800));
+    }
+
+    @Test
+    void testObserverPause() {
+        PhiAccrualDetector detector = new PhiAccrualDetector(200, 100);
+        long now = 0;
+        for (int i = 0; i < 50; i++) {
+            now += 200;
+            detector.heartbeat(now);
+        }
+        // 观察方暂停 1.5s 恢复时所有节点都会超过阈值
+        now += 1500;
+        Assertions.assertTrue(detector.phi(now) > 8);
+        // 重新计时后不可疑 之后的心跳正常判断
+        detector.reset(now);
+        Assertions.assertTrue(detector.phi(now + 200) < 1);
+        detector.heartbeat(now + 200);
+        Assertions.assertTrue(detector.phi(now + 400) < 1);
+        Assertions.assertTrue(detector.phi(now + 1400) > 8);
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.fluxion.test.core.broker;
+
+import io.fluxion.common.utils.time.TimeUtils;
+import io.fluxion.server.core.broker.task.ScheduleDelayLoader;
+import io.fluxion.server.core.schedule.ScheduleDelay;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * @author Devil
+ */
+class ScheduleDelayLoaderTest {
+
+    @Test
+    void testLoadBelowLastPosition() {
+        MemoryLoader loader = new MemoryLoader();
+        LocalDateTime now = TimeUtils.currentLocalDateTime();
+        loader.insert(new ScheduleDelay(new ScheduleDelay.ID("a", now.plusSeconds(10)), ScheduleDelay.Status.INIT));
+        loader.preload(1);
+        Assertions.assertTrue(loader.fired.contains("a"));
+
+        // 在上一轮加载到的位置之前插入 下一轮就要加载
+        loader.insert(new ScheduleDelay(new ScheduleDelay.ID("b", now.plusSeconds(5)), ScheduleDelay.Status.INIT));
+        loader.preload(1);
+        Assertions.assertTrue(loader.fired.contains("b"));
+    }
+
+    private static class MemoryLoader extends ScheduleDelayLoader {
+
+        private final List<ScheduleDelay> delays = new ArrayList<>();
+
+        private final Set<String> fired = ConcurrentHashMap.newKeySet();
+
+        MemoryLoader() {
+            super(1);
+        }
+
+        void insert(ScheduleDelay delay) {
+            delays.add(delay);
+        }
+
+        @Override
+        protected List<ScheduleDelay> next(int bucket, LocalDateTime lastTriggerAt, String lastDelayId) {
+            return delays.stream()
+                .filter(d -> lastTriggerAt == null || d.getId().getTriggerAt().isAfter(lastTriggerAt)
+                    || (d.getId().getTriggerAt().isEqual(lastTriggerAt) && d.getDelayId().compareTo(lastDelayId) > 0))
+                .sorted(Comparator.comparing((ScheduleDelay d) -> d.getId().getTriggerAt()).thenComparing(ScheduleDelay::getDelayId))
+                .collect(Collectors.toList());
+        }
+
+        @Override
+        protected void fire(List<ScheduleDelay> delays) {
+            delays.forEach(d -> fired.add(d.getId().getScheduleId()));
+        }
+    }
+
+}
@@ -19,12 +19,16 @@ package io.fluxion.test.core.schedule;
 import com.cronutils.model.CronType;
 import io.fluxion.common.utils.time.Formatters;
 import io.fluxion.common.utils.time.TimeUtils;
+import io.fluxion.server.core.broker.BrokerConfig;
+import io.fluxion.server.core.schedule.ScheduleLookAhead;
 import io.fluxion.server.infrastructure.schedule.Calculable;
 import io.fluxion.server.infrastructure.schedule.ScheduleOption;
 import io.fluxion.server.infrastructure.schedule.ScheduleType;
 import io.fluxion.server.infrastructure.schedule.calculator.ScheduleCalculator;
 import io.fluxion.server.infrastructure.schedule.calculator.ScheduleCalculatorFactory;
+import io.fluxion.server.infrastructure.schedule.schedule.HierarchicalTimingWheelTimer;
 import io.fluxion.server.infrastructure.schedule.schedule.ScheduledTaskScheduler;
+import io.fluxion.server.infrastructure.schedule.schedule.Timer;
 import io.fluxion.server.infrastructure.schedule.schedule.TimingWheelTimer;
 import io.fluxion.server.infrastructure.schedule.task.ScheduledTask;
 import io.fluxion.server.infrastructure.schedule.task.ScheduledTaskFactory;
@@ -36,6 +40,7 @@ import org.junit.jupiter.api.Test;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Date;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -93,6 +98,48 @@ class ScheduleTaskTest {
         }
     }
 
+    @Test
+    void testNextTriggers() {
+        LocalDateTime from = TimeUtils.currentLocalDateTime().plusMinutes(1).withSecond(0).withNano(0);
+        LocalDateTime until = from.plusMinutes(10);
+
+        ScheduleOption cronOption = new ScheduleOption(ScheduleType.CRON, null, null,
+                Duration.ZERO, null,
+                "0/5 * * * * ? *", CronType.QUARTZ.name()
+        );
+        List<LocalDateTime> cronTriggers = ScheduleCalculatorFactory.create(ScheduleType.CRON)
+                .nextTriggers(cronOption, from, until, Integer.MAX_VALUE);
+        Assertions.assertEquals(120, cronTriggers.size());
+        Assertions.assertEquals(until, cronTriggers.get(cronTriggers.size() - 1));
+
+        ScheduleOption rateOption = new ScheduleOption(ScheduleType.FIXED_RATE, null, null,
+                Duration.ZERO, Duration.ofSeconds(1),
+                null, null
+        );
+        List<LocalDateTime> rateTriggers = ScheduleCalculatorFactory.create(ScheduleType.FIXED_RATE)
+                .nextTriggers(rateOption, from, until, 100);
+        Assertions.assertEquals(100, rateTriggers.size());
+        Assertions.assertEquals(from.plusSeconds(1), rateTriggers.get(0));
+        Assertions.assertEquals(from.plusSeconds(100), rateTriggers.get(99));
+    }
+
+    @Test
+    void testAdaptiveLookAhead() {
+        BrokerConfig config = new BrokerConfig();
+        config.setScheduleAdaptiveLookAhead(true);
+        long maxSeconds = ScheduleLookAhead.maxSeconds(config);
+        // 高频调度窗口远小于最大预加载时间 但不小于两个加载间隔
+        long shortSeconds = ScheduleLookAhead.seconds(1, config);
+        Assertions.assertTrue(shortSeconds < maxSeconds);
+        Assertions.assertEquals(2L * config.scheduleLoadTickSeconds(), shortSeconds);
+        Assertions.assertEquals(10L * config.getScheduleAdaptiveTriggers(), ScheduleLookAhead.seconds(10, config));
+        // 低频调度使用最大预加载时间
+        Assertions.assertEquals(maxSeconds, ScheduleLookAhead.seconds(3600, config));
+        // 未开启时全部使用最大预加载时间
+        config.setScheduleAdaptiveLookAhead(false);
+        Assertions.assertEquals(ScheduleLookAhead.maxSeconds(config), ScheduleLookAhead.seconds(1, config));
+    }
+
     /**
      * 任务间隔 1s 执行 2s
      * 那么执行3 次时间为 2x3+ 1x2 = 8s
@@ -151,6 +198,29 @@ class ScheduleTaskTest {
         Assertions.assertTrue(cost >= 5000 && cost < 6000);
     }
 
+    @Test
+    void testHierarchicalTimer() throws InterruptedException {
+        HierarchicalTimingWheelTimer timer = new HierarchicalTimingWheelTimer(10L, TimeUnit.MILLISECONDS, 8);
+        AtomicInteger fired = new AtomicInteger();
+        long start = System.nanoTime();
+        AtomicLong end = new AtomicLong();
+        // 超出第一层范围 需要降级
+        timer.schedule(() -> {
+            fired.incrementAndGet();
+            end.set(System.nanoTime());
+        }, 300, TimeUnit.MILLISECONDS);
+        Timer.Timeout cancelled = timer.schedule(fired::incrementAndGet, 200, TimeUnit.MILLISECONDS);
+        Assertions.assertEquals(2, timer.pending());
+        Assertions.assertTrue(cancelled.cancel());
+        Assertions.assertEquals(1, timer.pending());
+        Thread.sleep(600);
+        timer.stop();
+        Assertions.assertEquals(1, fired.get());
+        Assertions.assertEquals(0, timer.pending());
+        // 时钟按毫秒截断 允许 1ms 误差
+        Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(end.get() - start) >= 299);
+    }
+
     private Consumer<ScheduledTask> buildConsumer(AtomicInteger times, AtomicLong end, long cost) {
         return task -> {
             log.info("execute {} start triggerAt:{} times:{}", task.id(), task.triggerAt(), times.get());
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.fluxion.test.core.worker;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import io.fluxion.remote.core.constants.Protocol;
+import io.fluxion.server.core.worker.Worker;
+import io.fluxion.server.core.worker.executor.WorkerExecutor;
+import io.fluxion.server.core.worker.service.WorkerRegistry;
+import io.fluxion.server.infrastructure.tag.Tag;
+import io.fluxion.server.infrastructure.tag.TagFilterCondition;
+import io.fluxion.server.infrastructure.tag.TagFilterOption;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * @author Devil
+ */
+class WorkerRegistryTest {
+
+    private static final String APP_ID = "app";
+
+    @Test
+    void testTagFilterIntersection() {
+        MemoryRegistry registry = new MemoryRegistry(
+            worker("w1", "e1", new Tag("env", "prod"), new Tag("zone", "a")),
+            worker("w2", "e1", new Tag("env", "prod")),
+            worker("w3", "e1", new Tag("env", "dev"), new Tag("zone", "b")),
+            worker("w4", "e2", new Tag("env", "prod"), new Tag("zone", "a"))
+        );
+        List<TagFilterOption> filters = Lists.newArrayList(
+            new TagFilterOption("env", "prod", TagFilterCondition.MUST_MATCH_VALUE),
+            new TagFilterOption("zone", null, TagFilterCondition.EXISTS)
+        );
+        Assertions.assertEquals(Collections.singleton("w1"), ids(registry.candidates(APP_ID, "e1", filters)));
+        Assertions.assertEquals(Sets.newHashSet("w1", "w4"), ids(registry.candidates(APP_ID, null, filters)));
+        // 不能用索引判断的条件由调用方过滤
+        List<TagFilterOption> notExists = Collections.singletonList(new TagFilterOption("zone", null, TagFilterCondition.NOT_EXISTS));
+        Assertions.assertEquals(3, registry.candidates(APP_ID, "e1", notExists).size());
+    }
+
+    @Test
+    void testUnindexOnUpdate() {
+        MemoryRegistry registry = new MemoryRegistry(worker("w1", "e1", new Tag("env", "prod")));
+        List<TagFilterOption> prod = Collections.singletonList(new TagFilterOption("env", "prod", TagFilterCondition.MUST_MATCH_VALUE));
+        Assertions.assertEquals(1, registry.candidates(APP_ID, "e1", prod).size());
+
+        registry.save(worker("w1", "e2", new Tag("env", "dev")));
+        Assertions.assertTrue(registry.candidates(APP_ID, "e1", null).isEmpty());
+        Assertions.assertTrue(registry.candidates(APP_ID, null, prod).isEmpty());
+        List<TagFilterOption> dev = Collections.singletonList(new TagFilterOption("env", "dev", TagFilterCondition.MUST_MATCH_VALUE));
+        Assertions.assertEquals(Collections.singleton("w1"), ids(registry.candidates(APP_ID, "e2", dev)));
+
+        registry.offline(Collections.singletonList("w1"));
+        Assertions.assertTrue(registry.candidates(APP_ID, "e2", dev).isEmpty());
+        Assertions.assertEquals(1, registry.reloads());
+    }
+
+    private static Worker worker(String id, String executor, Tag... tags) {
+        return new Worker(
+            id, APP_ID, "127.0.0.1", 8080, Protocol.HTTP,
+            Collections.singletonList(new WorkerExecutor(executor)), Lists.newArrayList(tags), null,
+            Worker.Status.ONLINE, true
+        );
+    }
+
+    private static Set<String> ids(List<Worker> workers) {
+        return workers.stream().map(Worker::id).collect(Collectors.toSet());
+    }
+
+    private static class MemoryRegistry extends WorkerRegistry {
+
+        private final List<Worker> workers;
+
+        MemoryRegistry(Worker... workers) {
+            this.workers = new ArrayList<>(Lists.newArrayList(workers));
+        }
+
+        @Override
+        protected List<Worker> query(String appId) {
+            return workers;
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.fluxion.test.infrastructure.cqrs;
+
+import io.fluxion.server.infrastructure.cqrs.DirectDispatch;
+import io.fluxion.server.infrastructure.cqrs.DirectDispatcher;
+import io.fluxion.server.infrastructure.cqrs.ICmd;
+import org.axonframework.commandhandling.CommandHandler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.transaction.Transactional;
+
+/**
+ * @author Devil
+ */
+class DirectDispatcherTest {
+
+    @Test
+    void testProxyBinding() {
+        MemoryTransactionManager transactionManager = new MemoryTransactionManager();
+        ProxyFactory factory = new ProxyFactory(new TxHandler());
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource()));
+
+        DirectDispatcher dispatcher = new DirectDispatcher();
+        dispatcher.register(factory.getProxy());
+        Assertions.assertTrue(dispatcher.supports(TxCmd.class));
+        // 通过代理调用 事务切面生效
+        Boolean active = dispatcher.dispatch(new TxCmd());
+        Assertions.assertTrue(active);
+        Assertions.assertEquals(1, transactionManager.commits);
+    }
+
+    @Test
+    void testFallbackOnMultipleHandlers() {
+        DirectDispatcher dispatcher = new DirectDispatcher();
+        dispatcher.register(new TxHandler());
+        dispatcher.register(new OtherTxHandler());
+        Assertions.assertFalse(dispatcher.supports(TxCmd.class));
+        // 冲突后再注册也不恢复
+        dispatcher.register(new TxHandler());
+        Assertions.assertFalse(dispatcher.supports(TxCmd.class));
+    }
+
+    @Test
+    void testUnmarkedHandler() {
+        DirectDispatcher dispatcher = new DirectDispatcher();
+        dispatcher.register(new UnmarkedHandler());
+        Assertions.assertFalse(dispatcher.supports(TxCmd.class));
+    }
+
+    public static class TxCmd implements ICmd<Boolean> {
+    }
+
+    @DirectDispatch
+    public static class TxHandler {
+
+        @Transactional
+        @CommandHandler
+        public Boolean handle(TxCmd cmd) {
+            return TransactionSynchronizationManager.isActualTransactionActive();
+        }
+    }
+
+    @DirectDispatch
+    public static class OtherTxHandler {
+
+        @CommandHandler
+        public Boolean handle(TxCmd cmd) {
+            return false;
+        }
+    }
+
+    public static class UnmarkedHandler {
+
+        @CommandHandler
+        public Boolean handle(TxCmd cmd) {
+            return false;
+        }
+    }
+
+    private static class MemoryTransactionManager extends AbstractPlatformTransactionManager {
+
+        private int commits;
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits++;
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+
+}
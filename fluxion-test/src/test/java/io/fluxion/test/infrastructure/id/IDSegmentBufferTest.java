@@ -0,0 +1,108 @@
+/*
+ * Copyright 2025-2030 fluxion-io Team (https://github.com/fluxion-io).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fluxion.test.infrastructure.id;
+
+import io.fluxion.server.infrastructure.id.service.IDSegmentBuffer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Devil
+ */
+class IDSegmentBufferTest {
+
+    @Test
+    void testConcurrentNext() throws InterruptedException {
+        AtomicLong db = new AtomicLong(10000);
+        ExecutorService loader = Executors.newSingleThreadExecutor();
+        IDSegmentBuffer buffer = new IDSegmentBuffer(100, step -> {
+            long start = db.getAndAdd(step);
+            return new IDSegmentBuffer.Segment(start, start + step);
+        }, loader);
+
+        int threads = 8;
+        int perThread = 5000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch latch = new CountDownLatch(threads);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            pool.execute(() -> {
+                for (int j = 0; j < perThread; j++) {
+                    ids.add(buffer.next());
+                }
+                latch.countDown();
+            });
+        }
+        latch.await();
+        pool.shutdown();
+        loader.shutdown();
+
+        Assertions.assertEquals(threads * perThread, ids.size());
+        Assertions.assertTrue(ids.stream().allMatch(id -> id > 10000 && id <= db.get()));
+        // 消耗很快 步长应当增长
+        Assertions.assertTrue(buffer.step() > 100);
+    }
+
+    @Test
+    void testRange() {
+        AtomicLong db = new AtomicLong(10000);
+        ExecutorService loader = Executors.newSingleThreadExecutor();
+        IDSegmentBuffer buffer = new IDSegmentBuffer(100, step -> {
+            long start = db.getAndAdd(step);
+            return new IDSegmentBuffer.Segment(start, start + step);
+        }, loader);
+
+        long first = buffer.next(30);
+        Assertions.assertEquals(10001, first);
+        Assertions.assertEquals(10031, buffer.next());
+        // 剩余不足 切换到下一个号段
+        long second = buffer.next(80);
+        Assertions.assertTrue(second > 10100 && second + 80 - 1 <= db.get());
+        // 超过号段大小 单独申请
+        long third = buffer.next(500);
+        Assertions.assertTrue(third + 500 - 1 <= db.get());
+        Assertions.assertTrue(third > second + 80 - 1);
+        loader.shutdown();
+    }
+
+    /**
+     * 每毫秒消耗 1 个 步长应收敛到一个号段使用 60s
+     */
+    @Test
+    void testConvergedStep() {
+        AtomicLong db = new AtomicLong(10000);
+        AtomicLong clock = new AtomicLong();
+        IDSegmentBuffer buffer = new IDSegmentBuffer(100, step -> {
+            long start = db.getAndAdd(step);
+            return new IDSegmentBuffer.Segment(start, start + step);
+        }, Runnable::run, clock::get);
+
+        for (int i = 0; i < 500_000; i++) {
+            buffer.next();
+            clock.incrementAndGet();
+        }
+        Assertions.assertTrue(Math.abs(buffer.step() - 60_000) <= 600, "step:" + buffer.step());
+    }
+
+}